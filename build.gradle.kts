@@ -1,6 +1,7 @@
 plugins {
     java
     id("com.gradleup.shadow") version "8.3.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.hakune"
@@ -19,10 +20,56 @@ repositories {
     maven("https://repo.papermc.io/repository/maven-public/")
 }
 
+val simulator: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[simulator.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
 dependencies {
     compileOnly("io.papermc.paper:paper-api:1.21.11-R0.1-SNAPSHOT")
     implementation("com.google.code.gson:gson:2.11.0")
     implementation("org.bstats:bstats-bukkit:3.0.2")
+
+    // Benchmarks run against the plain API jar; no server is started.
+    jmh("io.papermc.paper:paper-api:1.21.11-R0.1-SNAPSHOT")
+    // The load simulator runs the plugin against stand-in Server/Player/World objects.
+    "simulatorImplementation"("io.papermc.paper:paper-api:1.21.11-R0.1-SNAPSHOT")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // gc profiler reports allocation rate (gc.alloc.rate.norm = bytes per op).
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+tasks.register<JavaExec>("simulate") {
+    group = "verification"
+    description = "Runs the headless chat storm simulator, e.g. -Pargs=\"--players=1000 --rate=40\""
+    classpath = simulator.runtimeClasspath
+    mainClass.set("com.hakune.chat.sim.ChatStormSimulator")
+    args = (project.findProperty("args") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
+
+tasks.register<JavaExec>("telegramReplay") {
+    group = "verification"
+    description = "Posts recorded Telegram updates to a running webhook endpoint, e.g. -Pargs=\"--url=http://127.0.0.1:8443/telegram --secret=...\""
+    classpath = simulator.runtimeClasspath
+    mainClass.set("com.hakune.chat.sim.TelegramWebhookReplay")
+    args = (project.findProperty("args") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
+
+tasks.register<JavaExec>("discordReplay") {
+    group = "verification"
+    description = "Serves recorded Discord Gateway frames on a local WebSocket, e.g. -Pargs=\"--port=8765 --channel-id=...\""
+    classpath = simulator.runtimeClasspath
+    mainClass.set("com.hakune.chat.sim.DiscordGatewayReplay")
+    args = (project.findProperty("args") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
 }
 
 tasks {
@@ -0,0 +1,124 @@
+package com.hakune.chat;
+
+import com.hakune.chat.standin.PaperStandIn;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.object.ObjectContents;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// ChatListener.prepare/deliver without the server: links resolved on the message text by
+// ChatLinks, recipients split into Java and Bedrock classes, ChatListener.render called once
+// per class and the result sent to every recipient. `players` is the recipient count; every
+// third one is Bedrock.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChatRenderBenchmark {
+    private static final ChatSettings SETTINGS = settings(
+        new ChatFormat(
+            "&7[&aL&7] &r{head} &f{player}&7: &f{message}",
+            "&7[&bG&7] &r{head} &f{player}&7: &f{message}"
+        ),
+        new ChatFormat(
+            "&7[&aL&7] &f{player}&7: &f{message}",
+            "&7[&bG&7] &f{player}&7: &f{message}"
+        )
+    );
+
+    @Param({"16", "96", "256"})
+    public int messageLength;
+
+    @Param({"10", "200", "1000"})
+    public int players;
+
+    private final ChatLinks links = new ChatLinks(url -> "Open " + url);
+    private final List<Player> senders = new ArrayList<>();
+    private final List<Component> names = new ArrayList<>();
+    private boolean[] bedrock;
+    private String message;
+    private String messageWithLink;
+    private int next;
+
+    @Setup
+    public void setup() {
+        World world = PaperStandIn.world("world");
+        NickColorManager.GradientStyle gradient = new NickColorManager.GradientStyle(
+            TextColor.color(0xFF5555), TextColor.color(0x55FFFF)
+        );
+        bedrock = new boolean[players];
+        for (int i = 0; i < players; i++) {
+            bedrock[i] = i % 3 == 2;
+            String name = "Player" + i;
+            senders.add(PaperStandIn.player(name, world, i, 64, i));
+            names.add(gradient.apply(name));
+        }
+        message = Messages.text(messageLength);
+        messageWithLink = Messages.withLink(messageLength);
+    }
+
+    @Benchmark
+    public void renderPlain(Blackhole blackhole) {
+        render(message, blackhole);
+    }
+
+    @Benchmark
+    public void renderWithLink(Blackhole blackhole) {
+        render(messageWithLink, blackhole);
+    }
+
+    private void render(String raw, Blackhole blackhole) {
+        int index = next++ % players;
+        Player sender = senders.get(index);
+        Component messageComponent = links.apply(raw, ChatTemplate.text(raw));
+        Component head = Component.object(ObjectContents.playerHead(sender.getUniqueId()));
+        ChatTemplate.Values values = new ChatTemplate.Values(
+            sender,
+            sender.getWorld().getName(),
+            names.get(index),
+            messageComponent,
+            head,
+            null
+        );
+        List<Player> javaViewers = new ArrayList<>();
+        List<Player> bedrockViewers = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            (bedrock[i] ? bedrockViewers : javaViewers).add(senders.get(i));
+        }
+        deliver(javaViewers, ChatListener.render(SETTINGS, null, ViewerClass.JAVA, false, values), blackhole);
+        deliver(bedrockViewers, ChatListener.render(SETTINGS, null, ViewerClass.BEDROCK, false, values), blackhole);
+    }
+
+    private static void deliver(List<Player> viewers, Component component, Blackhole blackhole) {
+        if (viewers.isEmpty()) {
+            return;
+        }
+        Audience.audience(viewers).sendMessage(component);
+        blackhole.consume(component);
+    }
+
+    // Only the chat formats matter here; everything else is left empty.
+    private static ChatSettings settings(ChatFormat javaFormat, ChatFormat bedrockFormat) {
+        return new ChatSettings(
+            100.0, "!", javaFormat, bedrockFormat, null, true,
+            true, 60, "interval", List.of(),
+            false, null, null, false, null, null,
+            null, null, null, null, null, null, null,
+            false, false, "auto", null, null,
+            false, List.of(), false
+        );
+    }
+}
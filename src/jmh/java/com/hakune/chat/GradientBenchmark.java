@@ -0,0 +1,29 @@
+package com.hakune.chat;
+
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GradientBenchmark {
+    @Param({"Bob", "Steve_Builder", "VeryLongName1234"})
+    public String name;
+
+    private final NickColorManager.GradientStyle gradient = new NickColorManager.GradientStyle(
+        TextColor.color(0xFF5555), TextColor.color(0x55FFFF)
+    );
+
+    @Benchmark
+    public Component apply() {
+        return gradient.apply(name);
+    }
+}
@@ -0,0 +1,44 @@
+package com.hakune.chat;
+
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LinksBenchmark {
+    @Param({"16", "96", "256"})
+    public int messageLength;
+
+    private final ChatLinks links = new ChatLinks(url -> "Open " + url);
+    private String plain;
+    private String linked;
+    private Component plainComponent;
+    private Component linkedComponent;
+
+    @Setup
+    public void setup() {
+        plain = Messages.text(messageLength);
+        linked = Messages.withLink(messageLength);
+        plainComponent = ChatTemplate.text(plain);
+        linkedComponent = ChatTemplate.text(linked);
+    }
+
+    @Benchmark
+    public Component plainText() {
+        return links.apply(plain, plainComponent);
+    }
+
+    @Benchmark
+    public Component withLinks() {
+        return links.apply(linked, linkedComponent);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hakune.chat;
+
+// Chat-like text of a given length: words, a colour code now and then, optional link.
+final class Messages {
+    private static final String[] WORDS = {
+        "hello", "anyone", "near", "spawn", "&atrade", "diamonds", "for", "iron", "lol", "brb", "base", "north"
+    };
+
+    private Messages() {
+    }
+
+    static String text(int length) {
+        StringBuilder builder = new StringBuilder(length + 16);
+        int i = 0;
+        while (builder.length() < length) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[i++ % WORDS.length]);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+
+    static String withLink(int length) {
+        String link = " see https://example.com/map [wiki](www.example.org/wiki)";
+        if (length <= link.length()) {
+            return link.trim();
+        }
+        return text(length - link.length()) + link;
+    }
+}
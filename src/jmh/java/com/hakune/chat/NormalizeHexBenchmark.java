@@ -0,0 +1,43 @@
+package com.hakune.chat;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// The normalizeHex copies kept by ChatTemplate, TabManager, HeadMessageManager and MotdListener.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NormalizeHexBenchmark {
+    @Param({
+        "hello anyone near spawn",
+        "&7[&aL&7] &f{player}&7: &f{message}",
+        "#FF5555Red #55FF55green and &#5555FFalready"
+    })
+    public String text;
+
+    @Benchmark
+    public String chatTemplate() {
+        return ChatTemplate.normalizeHex(text);
+    }
+
+    @Benchmark
+    public String tabManager() {
+        return TabManager.normalizeHex(text);
+    }
+
+    @Benchmark
+    public String headMessageManager() {
+        return HeadMessageManager.normalizeHex(text);
+    }
+
+    @Benchmark
+    public String motdListener() {
+        return MotdListener.normalizeHex(text);
+    }
+}
@@ -0,0 +1,44 @@
+package com.hakune.chat;
+
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.object.ObjectContents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TabTokensBenchmark {
+    private static final String NAME_TAG = "&7[&a*&7] &a● {player}";
+    private static final String PLAYER_ENTRY = "{head} &a● {player}";
+    private static final String STATIC = "&7Online: &f42";
+
+    private final Component head = Component.object(ObjectContents.playerHead(java.util.UUID.randomUUID()));
+    private final Component player = Component.text("Steve_Builder");
+    private final ChatTemplate playerTemplate = ChatTemplate.compile(PLAYER_ENTRY);
+
+    @Benchmark
+    public Component nameTag() {
+        return TabManager.buildComponentWithTokens(NAME_TAG, null, player);
+    }
+
+    @Benchmark
+    public Component playerEntry() {
+        return TabManager.buildComponentWithTokens(PLAYER_ENTRY, head, player);
+    }
+
+    @Benchmark
+    public Component staticLine() {
+        return TabManager.buildComponentWithTokens(STATIC, null, null);
+    }
+
+    @Benchmark
+    public Component playerEntryTemplate() {
+        return playerTemplate.render(null, new ChatTemplate.Values(null, null, player, null, head, null));
+    }
+}
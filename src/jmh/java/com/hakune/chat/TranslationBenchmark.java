@@ -0,0 +1,43 @@
+package com.hakune.chat;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TranslationBenchmark {
+    private TranslationManager translations;
+
+    @Setup
+    public void setup() throws Exception {
+        try (InputStreamReader reader = new InputStreamReader(
+            TranslationBenchmark.class.getResourceAsStream("/translations/en.yml"), StandardCharsets.UTF_8)) {
+            translations = new TranslationManager(YamlConfiguration.loadConfiguration(reader));
+        }
+    }
+
+    @Benchmark
+    public String plainKey() {
+        return translations.get("ui.reply-button");
+    }
+
+    @Benchmark
+    public String oneVariable() {
+        return translations.format("ui.message-hover", "name", "Steve_Builder");
+    }
+
+    @Benchmark
+    public String threeVariables() {
+        return translations.format("stats.placeholders", "hits", "1200", "misses", "35", "cached", "48");
+    }
+}
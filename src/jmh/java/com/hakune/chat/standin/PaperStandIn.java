@@ -0,0 +1,90 @@
+package com.hakune.chat.standin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+// Minimal Paper objects backed by dynamic proxies: only identity, name and position
+// answer, every other call returns the type's default value. Enough for code paths
+// that read a player, never for anything that talks to a real server.
+public final class PaperStandIn {
+    private PaperStandIn() {
+    }
+
+    public static World world(String name) {
+        UUID id = UUID.nameUUIDFromBytes(("world:" + name).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return proxy(World.class, Map.of(
+            "getName", name,
+            "getUID", id
+        ));
+    }
+
+    public static Player player(String name, World world, double x, double y, double z) {
+        UUID id = UUID.nameUUIDFromBytes(("player:" + name).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        Location location = new Location(world, x, y, z);
+        Component displayName = Component.text(name);
+        return proxy(Player.class, Map.of(
+            "getName", name,
+            "getUniqueId", id,
+            "getWorld", world,
+            "getLocation", location,
+            "displayName", displayName,
+            "isOnline", Boolean.TRUE
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Object> answers) {
+        InvocationHandler handler = (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return type.getSimpleName() + answers;
+                default:
+                    break;
+            }
+            if (method.getParameterCount() == 0 && answers.containsKey(method.getName())) {
+                Object answer = answers.get(method.getName());
+                return answer instanceof Location location ? location.clone() : answer;
+            }
+            return defaultValue(method.getReturnType());
+        };
+        return (T) Proxy.newProxyInstance(PaperStandIn.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -1,12 +1,23 @@
 package com.hakune.chat;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-public final class BedrockDetector {
+public final class BedrockDetector implements Listener {
     private final boolean available;
     private final Method getInstanceMethod;
     private final Method isFloodgatePlayerMethod;
+    private final Map<UUID, Boolean> sessions = new ConcurrentHashMap<>();
+    private volatile Object api;
 
     public BedrockDetector() {
         Method getInstance = null;
@@ -25,13 +36,56 @@ public final class BedrockDetector {
         this.isFloodgatePlayerMethod = isFloodgatePlayer;
     }
 
+    public void trackOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            sessions.put(player.getUniqueId(), lookup(player.getUniqueId()));
+        }
+    }
+
     public boolean isBedrock(UUID uuid) {
+        if (!available || uuid == null) {
+            return false;
+        }
+        Boolean cached = sessions.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        boolean bedrock = lookup(uuid);
+        if (Bukkit.getPlayer(uuid) != null) {
+            sessions.put(uuid, bedrock);
+        }
+        return bedrock;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        sessions.put(uuid, lookup(uuid));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        sessions.remove(event.getPlayer().getUniqueId());
+    }
+
+    private boolean lookup(UUID uuid) {
         if (!available) {
             return false;
         }
+        // Floodgate gives unlinked Bedrock players UUIDs with zeroed most significant bits (0 + XUID).
+        if (uuid.getMostSignificantBits() == 0L) {
+            return true;
+        }
         try {
-            Object api = getInstanceMethod.invoke(null);
-            Object result = isFloodgatePlayerMethod.invoke(api, uuid);
+            Object instance = api;
+            if (instance == null) {
+                instance = getInstanceMethod.invoke(null);
+                if (instance == null) {
+                    return false;
+                }
+                api = instance;
+            }
+            Object result = isFloodgatePlayerMethod.invoke(instance, uuid);
             return result instanceof Boolean && (Boolean) result;
         } catch (Exception ignored) {
             return false;
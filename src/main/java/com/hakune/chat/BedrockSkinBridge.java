@@ -11,8 +11,6 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.object.ObjectContents;
-import net.kyori.adventure.text.object.PlayerHeadObjectContents;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import com.destroystokyo.paper.profile.PlayerProfile;
@@ -36,6 +34,7 @@ public final class BedrockSkinBridge implements Listener {
     private final HttpClient client;
 
     private final Map<UUID, SkinPropertyData> cache = new ConcurrentHashMap<>();
+    private final SkinRestorerHeadHook.HeadCache heads = new SkinRestorerHeadHook.HeadCache();
     private BukkitTask refreshTask;
     private volatile BedrockSkinSettings settings;
 
@@ -80,15 +79,11 @@ public final class BedrockSkinBridge implements Listener {
         return cache.get(uuid);
     }
 
-    public Component buildHeadComponent(Player player) {
+    public Component buildHeadComponent(Player player, SkinRestorerHeadHook.HeadForm form) {
         SkinPropertyData data = cache.get(player.getUniqueId());
-        if (data == null || data.value == null || data.value.isBlank()) {
-            return Component.object(ObjectContents.playerHead(player.getUniqueId()));
-        }
-        PlayerHeadObjectContents headContents = ObjectContents.playerHead()
-            .profileProperty(PlayerHeadObjectContents.property("textures", data.value, data.signature))
-            .build();
-        return Component.object(headContents);
+        return data == null
+            ? heads.get(player.getUniqueId(), null, null, null, form)
+            : heads.get(player.getUniqueId(), data, data.value, data.signature, form);
     }
 
     @EventHandler
@@ -106,6 +101,7 @@ public final class BedrockSkinBridge implements Listener {
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         cache.remove(event.getPlayer().getUniqueId());
+        heads.remove(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
@@ -0,0 +1,103 @@
+package com.hakune.chat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+// Last seen Telegram update id and Discord message id, kept in bridge-state.yml so the
+// bridges resume where they stopped after a restart or reload. Writes are batched onto
+// an async task and replace the file atomically.
+public final class BridgeCursors {
+    private static final long FLUSH_DELAY_TICKS = 20L;
+
+    private final HakuneChatPlugin plugin;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile long telegramUpdateId;
+    private volatile String discordMessageId;
+
+    public BridgeCursors(HakuneChatPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void load() {
+        File file = file();
+        if (!file.exists()) {
+            return;
+        }
+        YamlConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+        telegramUpdateId = cfg.getLong("telegram.last-update-id", 0L);
+        String discord = cfg.getString("discord.last-message-id", "");
+        discordMessageId = discord == null || discord.isBlank() ? null : discord;
+    }
+
+    public long getTelegramUpdateId() {
+        return telegramUpdateId;
+    }
+
+    public void setTelegramUpdateId(long updateId) {
+        if (updateId <= telegramUpdateId) {
+            return;
+        }
+        telegramUpdateId = updateId;
+        scheduleFlush();
+    }
+
+    public String getDiscordMessageId() {
+        return discordMessageId;
+    }
+
+    public void setDiscordMessageId(String messageId) {
+        if (messageId == null || !isNewerSnowflake(messageId, discordMessageId)) {
+            return;
+        }
+        discordMessageId = messageId;
+        scheduleFlush();
+    }
+
+    // Snowflakes are unsigned 64-bit numbers; compare by value, not as strings.
+    static boolean isNewerSnowflake(String candidate, String current) {
+        if (current == null) {
+            return true;
+        }
+        try {
+            return Long.compareUnsigned(Long.parseUnsignedLong(candidate), Long.parseUnsignedLong(current)) > 0;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    public synchronized void flush() {
+        flushScheduled.set(false);
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("telegram.last-update-id", telegramUpdateId);
+        cfg.set("discord.last-message-id", discordMessageId == null ? "" : discordMessageId);
+        File file = file();
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            cfg.save(temp);
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to save bridge-state.yml: " + ex.getMessage());
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!plugin.isEnabled() || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::flush, FLUSH_DELAY_TICKS);
+    }
+
+    private File file() {
+        return new File(plugin.getDataFolder(), "bridge-state.yml");
+    }
+}
@@ -3,10 +3,14 @@ package com.hakune.chat;
 public final class ChatFormat {
     private final String local;
     private final String global;
+    private final ChatTemplate localTemplate;
+    private final ChatTemplate globalTemplate;
 
     public ChatFormat(String local, String global) {
         this.local = local;
         this.global = global;
+        this.localTemplate = ChatTemplate.compile(local);
+        this.globalTemplate = ChatTemplate.compile(global);
     }
 
     public String getLocal() {
@@ -16,4 +20,12 @@ public final class ChatFormat {
     public String getGlobal() {
         return global;
     }
+
+    public ChatTemplate getLocalTemplate() {
+        return localTemplate;
+    }
+
+    public ChatTemplate getGlobalTemplate() {
+        return globalTemplate;
+    }
 }
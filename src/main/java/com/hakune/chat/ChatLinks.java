@@ -0,0 +1,66 @@
+package com.hakune.chat;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+
+public final class ChatLinks {
+    // Markdown link [label](url) or bare url, matched in one pass.
+    private static final Pattern LINK_PATTERN = Pattern.compile(
+        "(?i)\\[([^\\]\\r\\n]+)]\\(((?:https?://|www\\.)[^\\s)]+)\\)|\\b((?:https?://|www\\.)[^\\s<]+)"
+    );
+
+    private final TextReplacementConfig replacement;
+
+    public ChatLinks(Function<String, String> hoverText) {
+        this.replacement = TextReplacementConfig.builder()
+            .match(LINK_PATTERN)
+            .replacement((result, textBuilder) -> {
+                boolean markdown = result.group(2) != null;
+                String label = markdown ? result.group(1) : result.group(3);
+                String rawUrl = markdown ? result.group(2) : result.group(3);
+                return textBuilder.content(label)
+                    .clickEvent(ClickEvent.openUrl(toOpenableUrl(rawUrl)))
+                    .hoverEvent(HoverEvent.showText(Component.text(hoverText.apply(rawUrl))))
+                    .build();
+            })
+            .build();
+    }
+
+    public Component apply(String rawText, Component component) {
+        if (!mayContainLink(rawText)) {
+            return component;
+        }
+        return component.replaceText(replacement);
+    }
+
+    static boolean mayContainLink(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        if (text.contains("://")) {
+            return true;
+        }
+        for (int i = text.indexOf('.'); i >= 0; i = text.indexOf('.', i + 1)) {
+            if (i >= 3 && text.regionMatches(true, i - 3, "www.", 0, 4)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toOpenableUrl(String rawUrl) {
+        if (rawUrl == null) {
+            return "";
+        }
+        String lower = rawUrl.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("http://") || lower.startsWith("https://")) {
+            return rawUrl;
+        }
+        return "https://" + rawUrl;
+    }
+}
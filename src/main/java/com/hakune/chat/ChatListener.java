@@ -2,10 +2,15 @@ package com.hakune.chat;
 
 import io.papermc.paper.event.player.AsyncChatEvent;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -14,15 +19,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import java.util.regex.Pattern;
 
 public final class ChatListener implements Listener {
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
-        .character('&')
-        .hexColors()
-        .build();
-    private static final Pattern HEX_PATTERN = Pattern.compile("(?i)(?<!&)#([0-9a-f]{6})");
-
     private final HakuneChatPlugin plugin;
 
     public ChatListener(HakuneChatPlugin plugin) {
@@ -51,168 +49,184 @@ public final class ChatListener implements Listener {
             return;
         }
 
+        if (settings.isAsyncChatRenderer()) {
+            renderAsync(event, player, content, isGlobal);
+            return;
+        }
+
         event.setCancelled(true);
         String finalContent = content;
         Bukkit.getScheduler().runTask(plugin, () -> sendChat(player, finalContent, isGlobal));
     }
 
-    private void sendChat(Player player, String message, boolean global) {
-        ChatSettings settings = plugin.getSettings();
-        String resolvedMessage = plugin.getPlaceholderHook().apply(player, message);
-        resolvedMessage = normalizeHex(resolvedMessage);
-        plugin.showHeadMessage(player, resolvedMessage);
-
-        Component headComponent = Component.empty();
-        if (settings.isSkinRestorerHeads() && plugin.getSkinRestorerHeadHook() != null) {
-            headComponent = plugin.getSkinRestorerHeadHook().getHeadComponent(player);
-        }
-
+    private void renderAsync(AsyncChatEvent event, Player player, String message, boolean global) {
+        OutgoingChat chat = prepare(player, message, global);
+        Set<UUID> localSet;
         if (global) {
-            for (Player target : Bukkit.getOnlinePlayers()) {
-                Component component = buildComponentForViewer(player, target, resolvedMessage, global, headComponent);
-                target.sendMessage(component);
-            }
-            Component consoleComponent = buildComponentForViewer(player, null, resolvedMessage, global, headComponent);
-            Bukkit.getConsoleSender().sendMessage(consoleComponent);
-            if (plugin.getTelegramBridge() != null) {
-                plugin.getTelegramBridge().sendFromMinecraft(player, message, true);
+            localSet = null;
+        } else {
+            localSet = toIdSet(plugin.getSpatialIndex().nearby(player, Math.max(0.0, plugin.getSettings().getLocalDistance())));
+            Set<UUID> listeners = plugin.getListenLocal();
+            event.viewers().removeIf(viewer -> viewer instanceof Player target
+                && !localSet.contains(target.getUniqueId())
+                && !listeners.contains(target.getUniqueId()));
+        }
+
+        MessageMetrics metrics = plugin.getMessageMetrics();
+        Map<ViewerClass, Rendered> rendered = new ConcurrentHashMap<>();
+        Map<ViewerClass, Rendered> renderedListenLocal = new ConcurrentHashMap<>();
+        event.renderer((source, sourceDisplayName, ignoredMessage, viewer) -> {
+            if (!(viewer instanceof Player target)) {
+                return rendered.computeIfAbsent(ViewerClass.CONSOLE, viewerClass -> rendered(buildComponentForViewer(chat, viewerClass))).component();
             }
-            if (plugin.getDiscordBridge() != null) {
-                plugin.getDiscordBridge().sendFromMinecraft(player, message, true);
+            ViewerClass viewerClass = ViewerClass.of(plugin, target);
+            Rendered result;
+            if (localSet != null && !localSet.contains(target.getUniqueId())) {
+                result = renderedListenLocal.computeIfAbsent(viewerClass, key -> rendered(buildListenLocalComponent(chat, key)));
+            } else {
+                result = rendered.computeIfAbsent(viewerClass, key -> rendered(buildComponentForViewer(chat, key)));
             }
+            metrics.record(result.size(), 1);
+            return result.component();
+        });
+
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            plugin.showHeadMessage(player, chat.resolved());
+            forwardToBridges(chat);
+        });
+    }
+
+    private void sendChat(Player player, String message, boolean global) {
+        OutgoingChat chat = prepare(player, message, global);
+        plugin.showHeadMessage(player, chat.resolved());
+
+        if (global) {
+            deliver(chat, Bukkit.getOnlinePlayers());
+            forwardToBridges(chat);
             return;
         }
 
-        double maxDistance = Math.max(0.0, settings.getLocalDistance());
-        double maxDistanceSq = maxDistance * maxDistance;
-        List<Player> recipients = new ArrayList<>();
-        for (Player target : player.getWorld().getPlayers()) {
-            if (target.getLocation().distanceSquared(player.getLocation()) <= maxDistanceSq) {
-                recipients.add(target);
-            }
-        }
+        double maxDistance = Math.max(0.0, plugin.getSettings().getLocalDistance());
+        List<Player> recipients = plugin.getSpatialIndex().nearby(player, maxDistance);
 
-        for (Player target : recipients) {
-            Component component = buildComponentForViewer(player, target, resolvedMessage, false, headComponent);
-            target.sendMessage(component);
-        }
-        Component consoleComponent = buildComponentForViewer(player, null, resolvedMessage, false, headComponent);
-        Bukkit.getConsoleSender().sendMessage(consoleComponent);
-        sendListenLocal(player, recipients, resolvedMessage, headComponent);
-        if (plugin.getTelegramBridge() != null) {
-            plugin.getTelegramBridge().sendFromMinecraft(player, message, false);
-        }
-        if (plugin.getDiscordBridge() != null) {
-            plugin.getDiscordBridge().sendFromMinecraft(player, message, false);
-        }
+        deliver(chat, recipients);
+        sendListenLocal(chat, recipients);
+        forwardToBridges(chat);
     }
 
-    private static String normalizeHex(String text) {
-        if (text == null || text.isEmpty()) {
-            return text;
-        }
-        return HEX_PATTERN.matcher(text).replaceAll("&#$1");
+    private OutgoingChat prepare(Player player, String message, boolean global) {
+        String resolvedMessage = plugin.getPlaceholderHook().applyToMessage(player, message);
+        resolvedMessage = ChatTemplate.normalizeHex(resolvedMessage);
+
+        // Links are resolved once on the message text; templates only carry the result.
+        Component messageComponent = plugin.withClickableLinks(resolvedMessage, ChatTemplate.text(resolvedMessage));
+        Component voiceComponent = plugin.getVoiceDetector().getVoiceComponent(player);
+        return new OutgoingChat(player, message, resolvedMessage, global, messageComponent, voiceComponent);
     }
 
-    private static Component buildComponentWithHead(String formatted, Component headComponent) {
-        if (formatted == null) {
-            return Component.empty();
+    private void forwardToBridges(OutgoingChat chat) {
+        if (plugin.getTelegramBridge() != null) {
+            plugin.getTelegramBridge().sendFromMinecraft(chat.sender(), chat.raw(), chat.global());
         }
-        if (!formatted.contains("{head}")) {
-            return LEGACY.deserialize(formatted);
+        if (plugin.getDiscordBridge() != null) {
+            plugin.getDiscordBridge().sendFromMinecraft(chat.sender(), chat.raw(), chat.global());
         }
+    }
 
-        String[] parts = formatted.split("\\{head\\}", -1);
-        Component result = Component.empty();
-        for (int i = 0; i < parts.length; i++) {
-            if (!parts[i].isEmpty()) {
-                result = result.append(LEGACY.deserialize(parts[i]));
-            }
-            if (i < parts.length - 1 && headComponent != null) {
-                result = result.append(headComponent);
-            }
+    private void deliver(OutgoingChat chat, Iterable<? extends Player> recipients) {
+        for (Map.Entry<ViewerClass, List<Player>> group : ViewerClass.partition(plugin, recipients).entrySet()) {
+            send(group.getValue(), buildComponentForViewer(chat, group.getKey()));
         }
-        return result;
+        Bukkit.getConsoleSender().sendMessage(buildComponentForViewer(chat, ViewerClass.CONSOLE));
     }
 
-    private static Component replacePlayerPlaceholder(Component component, Component playerComponent) {
-        return component.replaceText(builder -> builder.matchLiteral("{player}").replacement(playerComponent));
+    private Component buildComponentForViewer(OutgoingChat chat, ViewerClass viewerClass) {
+        return render(plugin.getSettings(), plugin.getPlaceholderHook(), viewerClass, chat.global(), values(chat, viewerClass));
     }
 
-    private Component buildComponentForViewer(
-        Player sender,
-        Player viewer,
-        String resolvedMessage,
+    // Format choice and render for one viewer class. Needs no running plugin, so the jmh
+    // benchmark drives this same code.
+    static Component render(
+        ChatSettings settings,
+        PlaceholderHook placeholders,
+        ViewerClass viewerClass,
         boolean global,
-        Component headComponent
+        ChatTemplate.Values values
     ) {
-        ChatSettings settings = plugin.getSettings();
-        boolean viewerBedrock = viewer != null && plugin.getBedrockDetector().isBedrock(viewer.getUniqueId());
-        ChatFormat format = (settings.isSeparateBedrockFormat() && viewerBedrock)
+        ChatFormat format = (settings.isSeparateBedrockFormat() && viewerClass.isBedrock())
             ? settings.getBedrockFormat()
             : settings.getJavaFormat();
-        String template = global ? format.getGlobal() : format.getLocal();
-
-        String formatted = plugin.getPlaceholderHook().apply(sender, template);
-        formatted = normalizeHex(formatted);
-        formatted = formatted.replace("{voice}", plugin.getVoiceDetector().getVoiceIndicator(sender));
-
-        formatted = formatted
-            .replace("{world}", sender.getWorld().getName())
-            .replace("{message}", resolvedMessage);
-
-        Component component = buildComponentWithHead(formatted, headComponent);
-        Component playerComponent = buildPlayerComponent(viewer, sender);
-        return plugin.withClickableLinks(replacePlayerPlaceholder(component, playerComponent));
+        ChatTemplate template = global ? format.getGlobalTemplate() : format.getLocalTemplate();
+        return template.render(placeholders, values);
     }
 
-    private void sendListenLocal(Player sender, List<Player> localRecipients, String resolvedMessage, Component headComponent) {
-        ChatSettings settings = plugin.getSettings();
-        java.util.Set<java.util.UUID> localSet = new java.util.HashSet<>();
-        for (Player player : localRecipients) {
-            localSet.add(player.getUniqueId());
-        }
-        for (java.util.UUID uuid : plugin.getListenLocal()) {
+    private void sendListenLocal(OutgoingChat chat, List<Player> localRecipients) {
+        Set<UUID> localSet = toIdSet(localRecipients);
+        List<Player> listeners = new ArrayList<>();
+        for (UUID uuid : plugin.getListenLocal()) {
             if (localSet.contains(uuid)) {
                 continue;
             }
             Player viewer = Bukkit.getPlayer(uuid);
-            if (viewer == null || !viewer.isOnline()) {
-                continue;
-            }
-            boolean viewerBedrock = plugin.getBedrockDetector().isBedrock(viewer.getUniqueId());
-            String template = (settings.isSeparateBedrockFormat() && viewerBedrock)
-                ? settings.getListenLocalFormatBedrock()
-                : settings.getListenLocalFormatJava();
-
-            String formatted = plugin.getPlaceholderHook().apply(sender, template);
-            formatted = normalizeHex(formatted)
-                .replace("{world}", sender.getWorld().getName())
-                .replace("{message}", resolvedMessage)
-                .replace("{voice}", plugin.getVoiceDetector().getVoiceIndicator(sender));
-
-            Component component = buildComponentWithHead(formatted, headComponent);
-            Component playerComponent = buildPlayerComponent(viewer, sender);
-            component = replacePlayerPlaceholder(component, playerComponent);
-            if (!viewerBedrock) {
-                component = makeLlClickable(component, sender.getName());
+            if (viewer != null && viewer.isOnline()) {
+                listeners.add(viewer);
             }
-            viewer.sendMessage(plugin.withClickableLinks(component));
         }
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<ViewerClass, List<Player>> group : ViewerClass.partition(plugin, listeners).entrySet()) {
+            send(group.getValue(), buildListenLocalComponent(chat, group.getKey()));
+        }
+    }
+
+    private void send(List<Player> group, Component component) {
+        MessageMetrics metrics = plugin.getMessageMetrics();
+        metrics.record(metrics.measure(component), group.size());
+        Audience.audience(group).sendMessage(component);
+    }
+
+    private Rendered rendered(Component component) {
+        return new Rendered(component, plugin.getMessageMetrics().measure(component));
     }
 
-    private Component buildPlayerComponent(Player viewer, Player subject) {
-        Component base = plugin.getStyledNameComponent(subject);
-        if (viewer == null) {
-            return base;
+    private Component buildListenLocalComponent(OutgoingChat chat, ViewerClass viewerClass) {
+        ChatSettings settings = plugin.getSettings();
+        ChatTemplate template = (settings.isSeparateBedrockFormat() && viewerClass.isBedrock())
+            ? settings.getListenLocalTemplateBedrock()
+            : settings.getListenLocalTemplateJava();
+        Component component = template.render(plugin.getPlaceholderHook(), values(chat, viewerClass));
+        if (viewerClass.isInteractive()) {
+            component = makeLlClickable(component, chat.sender().getName());
+        }
+        return component;
+    }
+
+    private ChatTemplate.Values values(OutgoingChat chat, ViewerClass viewerClass) {
+        Player sender = chat.sender();
+        return new ChatTemplate.Values(
+            sender,
+            sender.getWorld().getName(),
+            buildPlayerComponent(viewerClass, sender),
+            chat.message(),
+            plugin.getHeadComponent(sender, viewerClass),
+            chat.voice()
+        );
+    }
+
+    private static Set<UUID> toIdSet(List<Player> players) {
+        Set<UUID> ids = new HashSet<>();
+        for (Player player : players) {
+            ids.add(player.getUniqueId());
         }
-        boolean viewerBedrock = plugin.getBedrockDetector().isBedrock(viewer.getUniqueId());
-        if (viewerBedrock) {
-            return base;
+        return ids;
+    }
+
+    private Component buildPlayerComponent(ViewerClass viewerClass, Player subject) {
+        if (!viewerClass.isInteractive()) {
+            return plugin.getStyledNameComponent(subject);
         }
-        String name = subject.getName();
-        return base.clickEvent(ClickEvent.suggestCommand("/msg " + name + " "))
-            .hoverEvent(HoverEvent.showText(Component.text(plugin.trf("ui.message-hover", "name", name)).color(NamedTextColor.GRAY)));
+        return plugin.getClickableNameComponent(subject);
     }
 
     private Component makeLlClickable(Component component, String playerName) {
@@ -221,4 +235,17 @@ public final class ChatListener implements Listener {
                 .clickEvent(ClickEvent.runCommand("/tp " + playerName))
                 .hoverEvent(HoverEvent.showText(Component.text(plugin.trf("ui.tp-hover", "player", playerName)).color(NamedTextColor.GRAY)))));
     }
+
+    private record Rendered(Component component, int size) {
+    }
+
+    private record OutgoingChat(
+        Player sender,
+        String raw,
+        String resolved,
+        boolean global,
+        Component message,
+        Component voice
+    ) {
+    }
 }
@@ -31,6 +31,17 @@ public final class ChatSettings {
     private final String voiceIndicatorOff;
     private final boolean motdEnabled;
     private final java.util.List<String> motdLines;
+    private final boolean asyncChatRenderer;
+    private final ChatTemplate joinTemplateJava;
+    private final ChatTemplate joinTemplateBedrock;
+    private final ChatTemplate quitTemplateJava;
+    private final ChatTemplate quitTemplateBedrock;
+    private final ChatTemplate listenLocalTemplateJava;
+    private final ChatTemplate listenLocalTemplateBedrock;
+    private final ChatTemplate pmToTemplateJava;
+    private final ChatTemplate pmFromTemplateJava;
+    private final ChatTemplate pmToTemplateBedrock;
+    private final ChatTemplate pmFromTemplateBedrock;
 
     public ChatSettings(
         double localDistance,
@@ -62,7 +73,8 @@ public final class ChatSettings {
         String voiceIndicatorOn,
         String voiceIndicatorOff,
         boolean motdEnabled,
-        java.util.List<String> motdLines
+        java.util.List<String> motdLines,
+        boolean asyncChatRenderer
     ) {
         this.localDistance = localDistance;
         this.globalSymbol = globalSymbol;
@@ -94,6 +106,17 @@ public final class ChatSettings {
         this.voiceIndicatorOff = voiceIndicatorOff;
         this.motdEnabled = motdEnabled;
         this.motdLines = motdLines;
+        this.asyncChatRenderer = asyncChatRenderer;
+        this.joinTemplateJava = ChatTemplate.compile(joinFormatJava);
+        this.joinTemplateBedrock = ChatTemplate.compile(joinFormatBedrock);
+        this.quitTemplateJava = ChatTemplate.compile(quitFormatJava);
+        this.quitTemplateBedrock = ChatTemplate.compile(quitFormatBedrock);
+        this.listenLocalTemplateJava = ChatTemplate.compile(listenLocalFormatJava);
+        this.listenLocalTemplateBedrock = ChatTemplate.compile(listenLocalFormatBedrock);
+        this.pmToTemplateJava = ChatTemplate.compile(pmToJava);
+        this.pmFromTemplateJava = ChatTemplate.compile(pmFromJava);
+        this.pmToTemplateBedrock = ChatTemplate.compile(pmToBedrock);
+        this.pmFromTemplateBedrock = ChatTemplate.compile(pmFromBedrock);
     }
 
     public double getLocalDistance() {
@@ -215,4 +238,48 @@ public final class ChatSettings {
     public java.util.List<String> getMotdLines() {
         return motdLines;
     }
+
+    public boolean isAsyncChatRenderer() {
+        return asyncChatRenderer;
+    }
+
+    public ChatTemplate getJoinTemplateJava() {
+        return joinTemplateJava;
+    }
+
+    public ChatTemplate getJoinTemplateBedrock() {
+        return joinTemplateBedrock;
+    }
+
+    public ChatTemplate getQuitTemplateJava() {
+        return quitTemplateJava;
+    }
+
+    public ChatTemplate getQuitTemplateBedrock() {
+        return quitTemplateBedrock;
+    }
+
+    public ChatTemplate getListenLocalTemplateJava() {
+        return listenLocalTemplateJava;
+    }
+
+    public ChatTemplate getListenLocalTemplateBedrock() {
+        return listenLocalTemplateBedrock;
+    }
+
+    public ChatTemplate getPmToTemplateJava() {
+        return pmToTemplateJava;
+    }
+
+    public ChatTemplate getPmFromTemplateJava() {
+        return pmFromTemplateJava;
+    }
+
+    public ChatTemplate getPmToTemplateBedrock() {
+        return pmToTemplateBedrock;
+    }
+
+    public ChatTemplate getPmFromTemplateBedrock() {
+        return pmFromTemplateBedrock;
+    }
 }
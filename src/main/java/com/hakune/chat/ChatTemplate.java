@@ -0,0 +1,281 @@
+package com.hakune.chat;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
+
+// Format string compiled once into static component segments and typed slots;
+// rendering only fills the slots, no regex or legacy parsing per message/viewer.
+public final class ChatTemplate {
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
+        .character('&')
+        .hexColors()
+        .build();
+    private static final Pattern HEX_PATTERN = Pattern.compile("(?i)(?<!&)#([0-9a-f]{6})");
+    private static final ChatTemplate EMPTY = new ChatTemplate(List.of(), EnumSet.noneOf(Slot.class));
+
+    public enum Slot {
+        PLAYER("{player}"),
+        MESSAGE("{message}"),
+        HEAD("{head}"),
+        VOICE("{voice}"),
+        WORLD("{world}"),
+        PLACEHOLDER(null);
+
+        private final String token;
+
+        Slot(String token) {
+            this.token = token;
+        }
+    }
+
+    private final List<Token> tokens;
+    private final Set<Slot> slots;
+
+    private ChatTemplate(List<Token> tokens, Set<Slot> slots) {
+        this.tokens = tokens;
+        this.slots = slots;
+    }
+
+    public static ChatTemplate compile(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return EMPTY;
+        }
+        String text = normalizeHex(raw);
+        List<Token> tokens = new ArrayList<>();
+        Set<Slot> slots = EnumSet.noneOf(Slot.class);
+        LegacyState state = new LegacyState();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            Slot slot = null;
+            String placeholder = null;
+            if (c == '{') {
+                for (Slot candidate : Slot.values()) {
+                    if (candidate.token != null && text.startsWith(candidate.token, i)) {
+                        slot = candidate;
+                        break;
+                    }
+                }
+            } else if (c == '%') {
+                int end = text.indexOf('%', i + 1);
+                if (end > 0 && PlaceholderHook.isToken(text, i, end)) {
+                    slot = Slot.PLACEHOLDER;
+                    placeholder = text.substring(i, end + 1);
+                }
+            }
+            if (slot == null) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            flushLiteral(tokens, literal, state);
+            if (slot == Slot.HEAD) {
+                // Heads are inserted unstyled and start a fresh style run, like the old split on {head}.
+                tokens.add(new Token(slot, Style.empty(), null, null, "", null, ""));
+                state.reset();
+            } else {
+                tokens.add(new Token(slot, state.style, null, placeholder, state.codes, null, state.codes));
+            }
+            slots.add(slot);
+            i += slot == Slot.PLACEHOLDER ? placeholder.length() : slot.token.length();
+        }
+        flushLiteral(tokens, literal, state);
+        return new ChatTemplate(List.copyOf(tokens), slots);
+    }
+
+    public boolean uses(Slot slot) {
+        return slots.contains(slot);
+    }
+
+    public Component render(PlaceholderHook placeholders, Values values) {
+        if (tokens.isEmpty()) {
+            return Component.empty();
+        }
+        TextComponent.Builder builder = Component.text();
+        // Colour codes left open by a placeholder value (e.g. a "&c[Admin] " prefix) run on into
+        // the following template text, as they did when the value was spliced into the raw string.
+        String carry = null;
+        for (Token token : tokens) {
+            if (token.slot == null) {
+                if (carry == null) {
+                    if (token.component != null) {
+                        builder.append(token.component);
+                    }
+                    continue;
+                }
+                builder.append(LEGACY.deserialize(carry + token.raw));
+                String after = LegacyState.after(carry, token.raw).codes;
+                carry = after.equals(token.codesAfter) ? null : after;
+                continue;
+            }
+            Style style = carry == null ? token.style : LegacyState.after(carry, "").style;
+            switch (token.slot) {
+                case PLAYER -> append(builder, style, values.player());
+                case MESSAGE -> append(builder, style, values.message());
+                case HEAD -> {
+                    append(builder, token.style, values.head());
+                    carry = null;
+                }
+                case VOICE -> append(builder, style, values.voice());
+                case WORLD -> append(builder, style, values.world() == null ? null : Component.text(values.world()));
+                case PLACEHOLDER -> {
+                    String resolved = placeholders == null
+                        ? token.placeholder
+                        : placeholders.apply(values.placeholderTarget(), token.placeholder);
+                    append(builder, style, text(resolved));
+                    if (resolved != null && resolved.indexOf('&') >= 0) {
+                        String after = LegacyState.after(carry == null ? token.codes : carry, normalizeHex(resolved)).codes;
+                        carry = after.equals(token.codesAfter) ? null : after;
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public static Component text(String legacy) {
+        if (legacy == null || legacy.isEmpty()) {
+            return Component.empty();
+        }
+        return LEGACY.deserialize(normalizeHex(legacy));
+    }
+
+    public static String normalizeHex(String text) {
+        if (text == null || text.indexOf('#') < 0) {
+            return text;
+        }
+        return HEX_PATTERN.matcher(text).replaceAll("&#$1");
+    }
+
+    private static void append(TextComponent.Builder builder, Style style, Component value) {
+        if (value == null) {
+            return;
+        }
+        if (style.isEmpty()) {
+            builder.append(value);
+            return;
+        }
+        builder.append(Component.text().style(style).append(value).build());
+    }
+
+    private static void flushLiteral(List<Token> tokens, StringBuilder literal, LegacyState state) {
+        if (literal.length() == 0) {
+            return;
+        }
+        String segment = literal.toString();
+        literal.setLength(0);
+        String codes = state.codes;
+        Component component = LEGACY.deserialize(codes + segment);
+        state.scan(segment);
+        if (PlainTextComponentSerializer.plainText().serialize(component).isEmpty()) {
+            // Codes-only segment: nothing to show, but it still ends a carried placeholder colour.
+            component = null;
+        }
+        tokens.add(new Token(null, Style.empty(), component, null, codes, segment, state.codes));
+    }
+
+    public record Values(
+        Player placeholderTarget,
+        String world,
+        Component player,
+        Component message,
+        Component head,
+        Component voice
+    ) {
+    }
+
+    private static final class Token {
+        private final Slot slot;
+        private final Style style;
+        private final Component component;
+        private final String placeholder;
+        // Legacy codes active before/after this token in the template, and the raw literal text.
+        private final String codes;
+        private final String raw;
+        private final String codesAfter;
+
+        private Token(
+            Slot slot,
+            Style style,
+            Component component,
+            String placeholder,
+            String codes,
+            String raw,
+            String codesAfter
+        ) {
+            this.slot = slot;
+            this.style = style;
+            this.component = component;
+            this.placeholder = placeholder;
+            this.codes = codes;
+            this.raw = raw;
+            this.codesAfter = codesAfter;
+        }
+    }
+
+    // Legacy colour/decoration state at the end of a static segment, so slots and the
+    // following segment keep the style they had in the raw template.
+    private static final class LegacyState {
+        private String codes = "";
+        private Style style = Style.empty();
+
+        private static LegacyState after(String codes, String text) {
+            LegacyState state = new LegacyState();
+            state.scan(codes);
+            state.scan(text);
+            return state;
+        }
+
+        private void reset() {
+            codes = "";
+            style = Style.empty();
+        }
+
+        private void scan(String text) {
+            for (int i = 0; i + 1 < text.length(); i++) {
+                if (text.charAt(i) != '&') {
+                    continue;
+                }
+                char code = text.charAt(i + 1);
+                if (code == '#') {
+                    if (i + 8 <= text.length()) {
+                        String hex = text.substring(i + 2, i + 8);
+                        TextColor color = TextColor.fromHexString("#" + hex);
+                        if (color != null) {
+                            codes = "&#" + hex;
+                            style = Style.style(color);
+                            i += 7;
+                        }
+                    }
+                    continue;
+                }
+                LegacyFormat format = LegacyComponentSerializer.parseChar(code);
+                if (format == null) {
+                    continue;
+                }
+                if (format.reset()) {
+                    reset();
+                } else if (format.color() != null) {
+                    codes = "&" + code;
+                    style = Style.style(format.color());
+                } else if (format.decoration() != null) {
+                    codes = codes + "&" + code;
+                    style = style.decoration(format.decoration(), true);
+                }
+                i++;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hakune.chat;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -8,6 +9,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import org.bukkit.Bukkit;
@@ -16,17 +19,25 @@ import org.bukkit.scheduler.BukkitTask;
 
 public final class DiscordBridge {
     private static final Gson GSON = new Gson();
+    private static final long DISCORD_EPOCH_MILLIS = 1420070400000L;
+    private static final long SEED_MARGIN_MILLIS = 60_000L;
 
     private final HakuneChatPlugin plugin;
     private final IntegrationSettings.DiscordSettings settings;
     private final HttpClient client;
     private BukkitTask pollTask;
+    private DiscordGateway gateway;
     private final AtomicReference<String> lastMessageId = new AtomicReference<>(null);
+    // Gateway messages that arrive while a catch-up fetch is in flight wait for it, so the
+    // cursor does not move past the messages that fetch is about to return.
+    private final List<DiscordMessage> heldLive = new ArrayList<>();
+    private int catchUps;
 
     public DiscordBridge(HakuneChatPlugin plugin, IntegrationSettings.DiscordSettings settings) {
         this.plugin = plugin;
         this.settings = settings;
         this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.lastMessageId.set(plugin.getBridgeCursors().getDiscordMessageId());
     }
 
     public boolean isEnabled() {
@@ -40,11 +51,27 @@ public final class DiscordBridge {
         if (settings.getBotToken() != null && !settings.getBotToken().isBlank()
             && settings.getChannelId() != null && !settings.getChannelId().isBlank()) {
             int interval = Math.max(2, settings.getPollIntervalSeconds());
+            // With the gateway on, the poll task stays scheduled but only runs while it is down.
             pollTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::pollMessages, 40L, interval * 20L);
+            if (settings.isGateway()) {
+                gateway = new DiscordGateway(
+                    client,
+                    settings.getGatewayUrl(),
+                    settings.getBotToken(),
+                    settings.getChannelId(),
+                    new GatewayListener(),
+                    plugin.getLogger()
+                );
+                gateway.start();
+            }
         }
     }
 
     public void stop() {
+        if (gateway != null) {
+            gateway.stop();
+            gateway = null;
+        }
         if (pollTask != null) {
             pollTask.cancel();
             pollTask = null;
@@ -84,22 +111,31 @@ public final class DiscordBridge {
         if (!isEnabled()) {
             return;
         }
+        DiscordGateway current = gateway;
+        if (current != null && current.isConnected()) {
+            return;
+        }
         String channelId = settings.getChannelId();
         String token = settings.getBotToken();
         if (channelId == null || channelId.isBlank() || token == null || token.isBlank()) {
             return;
         }
-        String url = "https://discord.com/api/v10/channels/" + channelId + "/messages?limit=5";
-        HttpRequest request = HttpRequest.newBuilder()
+        client.sendAsync(messagesRequest(), HttpResponse.BodyHandlers.ofString())
+            .thenAccept(this::handleMessages)
+            .exceptionally(ignored -> null);
+    }
+
+    private HttpRequest messagesRequest() {
+        // Resume right after the stored cursor; without one, only fetch the newest id to start from.
+        String last = lastMessageId.get();
+        String url = "https://discord.com/api/v10/channels/" + settings.getChannelId() + "/messages"
+            + (last == null ? "?limit=1" : "?after=" + last + "&limit=50");
+        return HttpRequest.newBuilder()
             .uri(URI.create(url))
             .timeout(Duration.ofSeconds(15))
-            .header("Authorization", "Bot " + token)
+            .header("Authorization", "Bot " + settings.getBotToken())
             .GET()
             .build();
-
-        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .thenAccept(this::handleMessages)
-            .exceptionally(ignored -> null);
     }
 
     private void handleMessages(HttpResponse<String> response) {
@@ -113,21 +149,47 @@ public final class DiscordBridge {
             return;
         }
         if (messages == null || messages.length == 0) {
+            seedEmptyChannel();
+            return;
+        }
+        deliver(messages, false);
+    }
+
+    // An empty seed fetch leaves nothing to start after; seed from the clock instead so the
+    // first real message is broadcast rather than taken as the seed. The channel was empty
+    // when fetched, so a cursor from a minute earlier cannot replay old history.
+    private synchronized void seedEmptyChannel() {
+        if (lastMessageId.get() != null) {
             return;
         }
-        for (int i = messages.length - 1; i >= 0; i--) {
-            DiscordMessage msg = messages[i];
-            if (msg == null || msg.author == null || msg.content == null) {
+        long millis = System.currentTimeMillis() - SEED_MARGIN_MILLIS - DISCORD_EPOCH_MILLIS;
+        String seed = Long.toUnsignedString(Math.max(0L, millis) << 22);
+        lastMessageId.set(seed);
+        plugin.getBridgeCursors().setDiscordMessageId(seed);
+    }
+
+    // REST pages and gateway events both land here; the cursor check drops anything already
+    // delivered by the other path.
+    private synchronized void deliver(DiscordMessage[] messages, boolean live) {
+        boolean seeding = !live && lastMessageId.get() == null;
+        Arrays.sort(messages, (a, b) -> {
+            if (a == null || b == null || a.id == null || b.id == null) {
+                return 0;
+            }
+            return BridgeCursors.isNewerSnowflake(a.id, b.id) ? 1 : (a.id.equals(b.id) ? 0 : -1);
+        });
+        for (DiscordMessage msg : messages) {
+            if (msg == null || msg.id == null || !BridgeCursors.isNewerSnowflake(msg.id, lastMessageId.get())) {
                 continue;
             }
-            if (Boolean.TRUE.equals(msg.author.bot)) {
+            lastMessageId.set(msg.id);
+            plugin.getBridgeCursors().setDiscordMessageId(msg.id);
+            if (seeding || msg.author == null || msg.content == null) {
                 continue;
             }
-            String last = lastMessageId.get();
-            if (last != null && msg.id.compareTo(last) <= 0) {
+            if (Boolean.TRUE.equals(msg.author.bot)) {
                 continue;
             }
-            lastMessageId.set(msg.id);
             String formatted = settings.getFormatFromDiscord()
                 .replace("{user}", msg.author.username)
                 .replace("{message}", msg.content);
@@ -135,6 +197,58 @@ public final class DiscordBridge {
         }
     }
 
+    private synchronized void beginCatchUp() {
+        catchUps++;
+    }
+
+    private synchronized void finishCatchUp(HttpResponse<String> response) {
+        catchUps--;
+        if (response != null) {
+            handleMessages(response);
+        }
+        if (catchUps > 0 || heldLive.isEmpty()) {
+            return;
+        }
+        DiscordMessage[] held = heldLive.toArray(new DiscordMessage[0]);
+        heldLive.clear();
+        deliver(held, true);
+    }
+
+    private synchronized void deliverLive(DiscordMessage message) {
+        if (catchUps > 0) {
+            heldLive.add(message);
+            return;
+        }
+        deliver(new DiscordMessage[] {message}, true);
+    }
+
+    private final class GatewayListener implements DiscordGateway.Listener {
+        @Override
+        public void onConnected(boolean resumed) {
+            if (resumed) {
+                return;
+            }
+            // A new session does not replay what was sent while disconnected; fetch it before
+            // delivering anything newer. Async, so heartbeats on the gateway thread keep going.
+            beginCatchUp();
+            client.sendAsync(messagesRequest(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> finishCatchUp(error == null ? response : null));
+        }
+
+        @Override
+        public void onMessageCreate(JsonObject message) {
+            DiscordMessage msg;
+            try {
+                msg = GSON.fromJson(message, DiscordMessage.class);
+            } catch (Exception ignored) {
+                return;
+            }
+            if (msg != null) {
+                deliverLive(msg);
+            }
+        }
+    }
+
     private static final class WebhookPayload {
         final String content;
         private WebhookPayload(String content) {
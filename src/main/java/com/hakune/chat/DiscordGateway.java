@@ -0,0 +1,336 @@
+package com.hakune.chat;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Discord Gateway connection (v10, JSON) that delivers MESSAGE_CREATE for one channel.
+// Heartbeats, identify/resume and reconnects follow the gateway docs; every frame and
+// timer runs on one scheduler thread, so the session state needs no locking.
+public final class DiscordGateway {
+    // GUILD_MESSAGES | MESSAGE_CONTENT (privileged, must be enabled for the bot).
+    static final int INTENTS = (1 << 9) | (1 << 15);
+    private static final String QUERY = "/?v=10&encoding=json";
+    private static final long MAX_RECONNECT_MILLIS = 60_000L;
+
+    interface Listener {
+        // READY or RESUMED; a fresh session may have missed messages while disconnected.
+        void onConnected(boolean resumed);
+
+        void onMessageCreate(JsonObject message);
+    }
+
+    private final HttpClient client;
+    private final URI gatewayUrl;
+    private final String token;
+    private final String channelId;
+    private final Listener listener;
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+
+    private WebSocket socket;
+    private int generation;
+    private ScheduledFuture<?> heartbeat;
+    private boolean heartbeatAcked;
+    private Long sequence;
+    private String sessionId;
+    private String resumeUrl;
+    private long reconnectDelay = 1000L;
+    private volatile boolean connected;
+    private volatile boolean stopped;
+
+    public DiscordGateway(HttpClient client, String gatewayUrl, String token, String channelId, Listener listener, Logger logger) {
+        this.client = client;
+        this.gatewayUrl = URI.create(gatewayUrl);
+        this.token = token;
+        this.channelId = channelId;
+        this.listener = listener;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HakuneChat-Discord-Gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.execute(this::connect);
+    }
+
+    public void stop() {
+        stopped = true;
+        connected = false;
+        runOnGateway(() -> {
+            cancelHeartbeat();
+            WebSocket current = socket;
+            socket = null;
+            if (current != null) {
+                current.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown").exceptionally(ignored -> null);
+            }
+        });
+        executor.shutdown();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void connect() {
+        if (stopped) {
+            return;
+        }
+        int current = ++generation;
+        URI target = sessionId != null && resumeUrl != null ? URI.create(resumeUrl + QUERY) : gatewayUrl;
+        client.newWebSocketBuilder()
+            .buildAsync(target, new Frames(current))
+            .whenComplete((ws, error) -> {
+                if (error != null) {
+                    runOnGateway(() -> {
+                        if (current == generation) {
+                            logger.fine("Discord gateway connect failed: " + error.getMessage());
+                            reconnect(false);
+                        }
+                    });
+                }
+            });
+    }
+
+    private void handle(WebSocket ws, int frameGeneration, String text) {
+        if (frameGeneration != generation || stopped) {
+            return;
+        }
+        socket = ws;
+        JsonObject frame;
+        try {
+            frame = JsonParser.parseString(text).getAsJsonObject();
+        } catch (Exception ex) {
+            return;
+        }
+        int op = frame.has("op") ? frame.get("op").getAsInt() : -1;
+        JsonElement data = frame.get("d");
+        switch (op) {
+            case 0 -> {
+                if (frame.has("s") && !frame.get("s").isJsonNull()) {
+                    sequence = frame.get("s").getAsLong();
+                }
+                dispatch(frame.has("t") ? frame.get("t").getAsString() : "", data);
+            }
+            case 1 -> sendHeartbeat();
+            case 7 -> reconnect(true);
+            case 9 -> {
+                // Invalid session: resume only if Discord says it is still resumable.
+                if (data == null || !data.isJsonPrimitive() || !data.getAsBoolean()) {
+                    sessionId = null;
+                    sequence = null;
+                }
+                reconnectDelay = 1000L + ThreadLocalRandom.current().nextLong(4000L);
+                reconnect(false);
+            }
+            case 10 -> {
+                if (data != null && data.isJsonObject() && data.getAsJsonObject().has("heartbeat_interval")) {
+                    hello(data.getAsJsonObject().get("heartbeat_interval").getAsLong());
+                }
+            }
+            case 11 -> heartbeatAcked = true;
+            default -> {
+            }
+        }
+    }
+
+    private void hello(long interval) {
+        cancelHeartbeat();
+        heartbeatAcked = true;
+        long jitter = (long) (interval * ThreadLocalRandom.current().nextDouble());
+        heartbeat = executor.scheduleAtFixedRate(this::heartbeatTick, jitter, interval, TimeUnit.MILLISECONDS);
+        JsonObject payload = new JsonObject();
+        if (sessionId != null) {
+            payload.addProperty("op", 6);
+            JsonObject data = new JsonObject();
+            data.addProperty("token", token);
+            data.addProperty("session_id", sessionId);
+            data.addProperty("seq", sequence);
+            payload.add("d", data);
+        } else {
+            payload.addProperty("op", 2);
+            JsonObject data = new JsonObject();
+            data.addProperty("token", token);
+            data.addProperty("intents", INTENTS);
+            JsonObject properties = new JsonObject();
+            properties.addProperty("os", System.getProperty("os.name", "linux"));
+            properties.addProperty("browser", "HakuneChat");
+            properties.addProperty("device", "HakuneChat");
+            data.add("properties", properties);
+            payload.add("d", data);
+        }
+        send(payload.toString());
+    }
+
+    private void dispatch(String type, JsonElement data) {
+        switch (type) {
+            case "READY" -> {
+                JsonObject ready = data.getAsJsonObject();
+                sessionId = ready.get("session_id").getAsString();
+                resumeUrl = ready.has("resume_gateway_url") ? ready.get("resume_gateway_url").getAsString() : null;
+                markConnected(false);
+            }
+            case "RESUMED" -> markConnected(true);
+            case "MESSAGE_CREATE" -> {
+                JsonObject message = data.getAsJsonObject();
+                if (message.has("channel_id") && channelId.equals(message.get("channel_id").getAsString())) {
+                    listener.onMessageCreate(message);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void markConnected(boolean resumed) {
+        connected = true;
+        reconnectDelay = 1000L;
+        listener.onConnected(resumed);
+    }
+
+    private void heartbeatTick() {
+        if (!heartbeatAcked) {
+            // No ACK since the last beat: the connection is dead even if the socket is open.
+            reconnect(true);
+            return;
+        }
+        sendHeartbeat();
+    }
+
+    private void sendHeartbeat() {
+        heartbeatAcked = false;
+        send("{\"op\":1,\"d\":" + (sequence == null ? "null" : sequence.toString()) + "}");
+    }
+
+    private void send(String text) {
+        WebSocket current = socket;
+        if (current == null) {
+            return;
+        }
+        // Only one send may be outstanding; all sends happen on the gateway thread.
+        try {
+            current.sendText(text, true).get(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            reconnect(true);
+        }
+    }
+
+    // Drops the current socket and connects again, resuming when a session is known.
+    private void reconnect(boolean immediate) {
+        cancelHeartbeat();
+        generation++;
+        WebSocket current = socket;
+        socket = null;
+        if (current != null) {
+            // Aborting (no 1000 close) keeps the session resumable.
+            current.abort();
+        }
+        connected = false;
+        if (stopped) {
+            return;
+        }
+        long delay = immediate ? 0L : reconnectDelay;
+        reconnectDelay = Math.min(MAX_RECONNECT_MILLIS, Math.max(1000L, reconnectDelay * 2));
+        executor.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void closed(int frameGeneration, int code, String reason) {
+        if (frameGeneration != generation) {
+            return;
+        }
+        switch (code) {
+            case 4004, 4010, 4011, 4012, 4013, 4014 -> {
+                // Bad token, sharding or intents: retrying will not help, REST polling takes over.
+                logger.warning("Discord gateway refused the connection (" + code + " " + reason + ")"
+                    + (code == 4014 ? "; enable the Message Content intent for the bot" : "")
+                    + ". Falling back to REST polling.");
+                stopped = true;
+                cancelHeartbeat();
+                socket = null;
+                connected = false;
+                return;
+            }
+            case 4007, 4009 -> {
+                sessionId = null;
+                sequence = null;
+            }
+            default -> {
+            }
+        }
+        reconnect(false);
+    }
+
+    // Socket callbacks can still arrive after stop() shut the executor down.
+    private void runOnGateway(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void cancelHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+    }
+
+    // Callbacks for one socket; they hop onto the gateway thread and are ignored once the
+    // socket has been replaced.
+    private final class Frames implements WebSocket.Listener {
+        private final int frameGeneration;
+        private final StringBuilder partial = new StringBuilder();
+
+        private Frames(int frameGeneration) {
+            this.frameGeneration = frameGeneration;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            runOnGateway(() -> {
+                if (frameGeneration == generation) {
+                    socket = webSocket;
+                }
+            });
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                runOnGateway(() -> handle(webSocket, frameGeneration, text));
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            runOnGateway(() -> closed(frameGeneration, statusCode, reason));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            runOnGateway(() -> closed(frameGeneration, -1, String.valueOf(error.getMessage())));
+        }
+    }
+}
@@ -19,16 +19,14 @@ import java.io.File;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 
 public final class HakuneChatPlugin extends JavaPlugin {
     private static final int BSTATS_PLUGIN_ID = 29477;
+    private static final String DEFAULT_DISCORD_GATEWAY = "wss://gateway.discord.gg/?v=10&encoding=json";
     private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
         .character('&')
         .hexColors()
         .build();
-    private static final Pattern URL_PATTERN = Pattern.compile("(?i)\\b((?:https?://|www\\.)[^\\s<]+)");
-    private static final Pattern MARKDOWN_LINK_PATTERN = Pattern.compile("(?i)\\[([^\\]\\r\\n]+)]\\(((?:https?://|www\\.)[^\\s)]+)\\)");
 
     private ChatSettings settings;
     private BedrockDetector bedrockDetector;
@@ -53,11 +51,21 @@ public final class HakuneChatPlugin extends JavaPlugin {
     private String headMessageFormat = "&f{player}&7: &f{message}";
     private int headMessageDurationTicks = 60;
     private double headMessageYOffset = 2.2;
+    private double headMessageLineSpacing = 0.25;
+    private double headMessageVisibilityRadius = 0.0;
+    private boolean headMessagePoolEntities = true;
     private String headMessageRenderMode = "nametag";
     private String headMessageArmorStandFollowMode = "passenger";
     private String headMessageNameTagFormat = "{base} &8| &f{message}";
     private String manualStreamFormat = "&d[STREAM] &f{name}&7: &b{url}";
+    private int placeholderCacheTtlTicks = 1;
+    private final MessageMetrics messageMetrics = new MessageMetrics();
+    private final BridgeCursors bridgeCursors = new BridgeCursors(this);
+    private final ChatLinks chatLinks = new ChatLinks(url -> trf("ui.open-link-hover", "url", url));
+    private String skinRestorerHeadForm = "full";
+    private String skinRestorerHeadFormBedrock = "id";
     private NickColorManager nickColorManager;
+    private PlayerSpatialIndex spatialIndex;
 
     @Override
     public void onEnable() {
@@ -68,16 +76,19 @@ public final class HakuneChatPlugin extends JavaPlugin {
         saveResource("translations/en.yml", false);
         saveResource("translations/ru.yml", false);
         this.translationManager = new TranslationManager(this);
+        bridgeCursors.load();
+        // reloadSettings() starts the voice detector, whose first sweep reads placeholders.
+        this.placeholderHook = new PlaceholderHook(getServer().getPluginManager(), placeholderCacheTtlTicks);
         reloadSettings();
 
         this.bedrockDetector = new BedrockDetector();
-        this.placeholderHook = new PlaceholderHook(getServer().getPluginManager());
         this.skinRestorerHeadHook = new SkinRestorerHeadHook(this, getServer().getPluginManager());
+        this.skinRestorerHeadHook.setHeadForms(skinRestorerHeadForm, skinRestorerHeadFormBedrock);
         this.bedrockSkinBridge = new BedrockSkinBridge(this, loadBedrockSkinSettings(), this.bedrockDetector);
         this.tttManager = new TttManager(this);
-        this.voiceDetector = new VoiceDetector(this, getServer().getPluginManager());
         this.nickColorManager = new NickColorManager(this);
         this.headMessageManager = new HeadMessageManager(this);
+        this.spatialIndex = new PlayerSpatialIndex(this);
         this.nickColorManager.applyToOnlinePlayers();
         loadMsgHeadToggles();
         this.headMessageManager.configure(
@@ -85,6 +96,9 @@ public final class HakuneChatPlugin extends JavaPlugin {
             headMessageFormat,
             headMessageDurationTicks,
             headMessageYOffset,
+            headMessageLineSpacing,
+            headMessageVisibilityRadius,
+            headMessagePoolEntities,
             headMessageRenderMode,
             headMessageArmorStandFollowMode,
             headMessageNameTagFormat
@@ -95,6 +109,13 @@ public final class HakuneChatPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new MotdListener(this), this);
         getServer().getPluginManager().registerEvents(this.skinRestorerHeadHook, this);
         getServer().getPluginManager().registerEvents(this.bedrockSkinBridge, this);
+        getServer().getPluginManager().registerEvents(this.spatialIndex, this);
+        getServer().getPluginManager().registerEvents(this.placeholderHook, this);
+        getServer().getPluginManager().registerEvents(this.bedrockDetector, this);
+        getServer().getPluginManager().registerEvents(this.nickColorManager, this);
+        getServer().getPluginManager().registerEvents(this.headMessageManager, this);
+        this.bedrockDetector.trackOnlinePlayers();
+        this.spatialIndex.start();
         this.skinRestorerHeadHook.warmupOnlinePlayers();
         if (this.settings.isSkinRestorerHeads()) {
             this.skinRestorerHeadHook.configure(
@@ -142,10 +163,25 @@ public final class HakuneChatPlugin extends JavaPlugin {
         return telegramBridge;
     }
 
+    public BridgeCursors getBridgeCursors() {
+        return bridgeCursors;
+    }
+
+    public MessageMetrics getMessageMetrics() {
+        return messageMetrics;
+    }
+
     public SkinRestorerHeadHook getSkinRestorerHeadHook() {
         return skinRestorerHeadHook;
     }
 
+    public Component getHeadComponent(org.bukkit.entity.Player subject, ViewerClass viewerClass) {
+        if (!settings.isSkinRestorerHeads() || skinRestorerHeadHook == null) {
+            return Component.empty();
+        }
+        return skinRestorerHeadHook.getHeadComponent(subject, viewerClass);
+    }
+
     public TabSettings getTabSettings() {
         return tabSettings;
     }
@@ -170,6 +206,10 @@ public final class HakuneChatPlugin extends JavaPlugin {
         return nickColorManager;
     }
 
+    public PlayerSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     public boolean isHeadMessageEnabledFor(UUID uuid) {
         return !msgHeadDisabled.contains(uuid);
     }
@@ -185,6 +225,10 @@ public final class HakuneChatPlugin extends JavaPlugin {
         return headMessageManager;
     }
 
+    public TabManager getTabManager() {
+        return tabManager;
+    }
+
     public void refreshPlayerNameTag(org.bukkit.entity.Player player) {
         if (tabManager == null || player == null || !player.isOnline()) {
             return;
@@ -213,6 +257,17 @@ public final class HakuneChatPlugin extends JavaPlugin {
         return nickColorManager.getNameComponent(player);
     }
 
+    public Component getClickableNameComponent(org.bukkit.entity.Player player) {
+        if (nickColorManager == null) {
+            String name = player.getName();
+            return getStyledNameComponent(player)
+                .clickEvent(ClickEvent.suggestCommand("/msg " + name + " "))
+                .hoverEvent(HoverEvent.showText(Component.text(trf("ui.message-hover", "name", name))
+                    .color(net.kyori.adventure.text.format.NamedTextColor.GRAY)));
+        }
+        return nickColorManager.getClickableNameComponent(player);
+    }
+
     public String getStyledNameLegacy(org.bukkit.entity.Player player) {
         if (player == null) {
             return "";
@@ -260,9 +315,18 @@ public final class HakuneChatPlugin extends JavaPlugin {
             translationManager = new TranslationManager(this);
         }
         translationManager.reload(language);
+        if (nickColorManager != null) {
+            nickColorManager.invalidateAll();
+        }
 
         double localDistance = config.getDouble("chat.local-distance", 100.0);
         String globalSymbol = config.getString("chat.global-symbol", "!");
+        boolean asyncChatRenderer = config.getBoolean("chat.async-renderer", false);
+        messageMetrics.configure(config.getBoolean("chat.measure-message-bytes", false));
+        this.placeholderCacheTtlTicks = config.getInt("placeholders.cache-ttl-ticks", 1);
+        if (this.placeholderHook != null) {
+            this.placeholderHook.configure(placeholderCacheTtlTicks);
+        }
 
         FileConfiguration formatting = loadFormattingConfig();
         ConfigurationSection formats = formatting.getConfigurationSection("chat.formats");
@@ -285,6 +349,11 @@ public final class HakuneChatPlugin extends JavaPlugin {
         this.headMessageFormat = readTextBlock(formatting, "head-message.format", "&f{player}&7: &f{message}");
         this.headMessageDurationTicks = headMessageSection == null ? 60 : headMessageSection.getInt("duration-ticks", 60);
         this.headMessageYOffset = headMessageSection == null ? 2.2 : headMessageSection.getDouble("y-offset", 2.2);
+        this.headMessageLineSpacing = headMessageSection == null ? 0.25 : headMessageSection.getDouble("line-spacing", 0.25);
+        this.headMessageVisibilityRadius = headMessageSection == null
+            ? 0.0
+            : headMessageSection.getDouble("visibility-radius", 0.0);
+        this.headMessagePoolEntities = headMessageSection == null || headMessageSection.getBoolean("pool-entities", true);
         this.headMessageRenderMode = headMessageSection == null ? "nametag" : headMessageSection.getString("render-mode", "nametag");
         this.headMessageArmorStandFollowMode = headMessageSection == null
             ? "passenger"
@@ -301,6 +370,8 @@ public final class HakuneChatPlugin extends JavaPlugin {
         String skinRestorerUpdateMode = config.getString("features.skinrestorer-update-mode", "interval");
         java.util.List<String> skinRestorerCommandTriggers =
             config.getStringList("features.skinrestorer-command-triggers");
+        this.skinRestorerHeadForm = config.getString("features.skinrestorer-head-form", "full");
+        this.skinRestorerHeadFormBedrock = config.getString("features.skinrestorer-head-form-bedrock", "id");
         boolean joinMessageEnabled = config.getBoolean("features.join-message-enabled", true);
         boolean quitMessageEnabled = config.getBoolean("features.quit-message-enabled", true);
         boolean tttEnabled = config.getBoolean("minigames.ttt-enabled", true);
@@ -374,10 +445,15 @@ public final class HakuneChatPlugin extends JavaPlugin {
             voiceOn,
             voiceOff,
             motdEnabled,
-            motdLines
+            motdLines,
+            asyncChatRenderer
         );
 
+        if (this.voiceDetector != null) {
+            this.voiceDetector.stop();
+        }
         this.voiceDetector = new VoiceDetector(this, getServer().getPluginManager());
+        this.voiceDetector.start();
 
         if (this.telegramBridge != null) {
             this.telegramBridge.stop();
@@ -399,6 +475,7 @@ public final class HakuneChatPlugin extends JavaPlugin {
 
         if (this.skinRestorerHeadHook != null) {
             this.skinRestorerHeadHook.stop();
+            this.skinRestorerHeadHook.setHeadForms(skinRestorerHeadForm, skinRestorerHeadFormBedrock);
             if (skinRestorerHeads) {
                 this.skinRestorerHeadHook.configure(
                     skinRestorerUpdateMode,
@@ -425,6 +502,9 @@ public final class HakuneChatPlugin extends JavaPlugin {
                 headMessageFormat,
                 headMessageDurationTicks,
                 headMessageYOffset,
+                headMessageLineSpacing,
+                headMessageVisibilityRadius,
+                headMessagePoolEntities,
                 headMessageRenderMode,
                 headMessageArmorStandFollowMode,
                 headMessageNameTagFormat
@@ -463,6 +543,7 @@ public final class HakuneChatPlugin extends JavaPlugin {
         FileConfiguration tab = YamlConfiguration.loadConfiguration(file);
         boolean enabled = tab.getBoolean("tab.enabled", true);
         int interval = tab.getInt("tab.update-interval-seconds", 2);
+        double tickBudget = tab.getDouble("tab.tick-budget-ms", 2.0);
         java.util.List<String> header = readLines(tab, "tab.header");
         java.util.List<String> footer = readLines(tab, "tab.footer");
         String playerFormat = tab.getString("tab.player-format", "{player}");
@@ -470,7 +551,7 @@ public final class HakuneChatPlugin extends JavaPlugin {
         java.util.List<String> sorting = tab.getStringList("tab.sorting-types");
         boolean nameTagEnabled = tab.getBoolean("tab.name-tag.enabled", true);
         String nameTagFormat = tab.getString("tab.name-tag.format", "{player}");
-        return new TabSettings(enabled, interval, header, footer, playerFormat, groupPlaceholder, sorting, nameTagEnabled, nameTagFormat);
+        return new TabSettings(enabled, interval, tickBudget, header, footer, playerFormat, groupPlaceholder, sorting, nameTagEnabled, nameTagFormat);
     }
 
     private static java.util.List<String> readLines(FileConfiguration config, String path) {
@@ -529,20 +610,10 @@ public final class HakuneChatPlugin extends JavaPlugin {
         }
     }
 
-    private TelegramSettings loadTelegramSettings(FileConfiguration config) {
-        boolean enabled = config.getBoolean("telegram.enabled", false);
-        String token = config.getString("telegram.token", "");
-        String chatId = config.getString("telegram.chat-id", "");
-        int pollInterval = config.getInt("telegram.poll-interval-seconds", 5);
-        String formatTo = config.getString("telegram.format-to-telegram", "[{type}] {player}: {message}");
-        String formatFrom = config.getString("telegram.format-from-telegram", "&7[&dTG&7] &f{user}&7: &f{message}");
-        return new TelegramSettings(enabled, token, chatId, pollInterval, formatTo, formatFrom);
-    }
-
     public void broadcastExternal(String legacyText) {
-        Component component = withClickableLinks(LEGACY.deserialize(legacyText));
+        Component component = withClickableLinks(legacyText, LEGACY.deserialize(legacyText));
         Bukkit.getScheduler().runTask(this, () -> {
-            Bukkit.getOnlinePlayers().forEach(player -> player.sendMessage(component));
+            net.kyori.adventure.audience.Audience.audience(Bukkit.getOnlinePlayers()).sendMessage(component);
             Bukkit.getConsoleSender().sendMessage(component);
         });
     }
@@ -578,6 +649,14 @@ public final class HakuneChatPlugin extends JavaPlugin {
                 sender.sendMessage(ChatColor.GREEN + tr("info.config-reloaded"));
                 return true;
             }
+            if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+                if (!sender.hasPermission("hakunechat.reload")) {
+                    sender.sendMessage(ChatColor.RED + tr("error.no-permission"));
+                    return true;
+                }
+                sendStats(sender);
+                return true;
+            }
             sender.sendMessage(ChatColor.YELLOW + trf("command.hakunechat-usage", "label", label));
             return true;
         }
@@ -864,18 +943,70 @@ public final class HakuneChatPlugin extends JavaPlugin {
         return false;
     }
 
+    private void sendStats(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + tr("stats.header"));
+        if (placeholderHook != null) {
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.placeholders",
+                "hits", String.valueOf(placeholderHook.getHits()),
+                "misses", String.valueOf(placeholderHook.getMisses()),
+                "cached", String.valueOf(placeholderHook.getCachedCount())
+            ));
+        }
+        if (tabManager != null) {
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.tab",
+                "sent", String.valueOf(tabManager.getSentUpdates()),
+                "skipped", String.valueOf(tabManager.getSkippedUpdates())
+            ));
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.tab-deferred",
+                "deferred", String.valueOf(tabManager.getDeferredTicks())
+            ));
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.name-tags",
+                "updates", String.valueOf(tabManager.getNameTagTeamUpdates())
+            ));
+        }
+        if (headMessageManager != null) {
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.head-messages",
+                "active", String.valueOf(headMessageManager.getActiveCount()),
+                "micros", String.valueOf(headMessageManager.getAverageTickMicros())
+            ));
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.head-entities",
+                "spawned", String.valueOf(headMessageManager.getSpawnedEntities()),
+                "removed", String.valueOf(headMessageManager.getRemovedEntities()),
+                "reused", String.valueOf(headMessageManager.getReusedEntities())
+            ));
+        }
+        if (telegramBridge != null && telegramBridge.isEnabled()) {
+            TelegramOutbox outbox = telegramBridge.getOutbox();
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.telegram",
+                "sent", String.valueOf(outbox.getSent()),
+                "queued", String.valueOf(outbox.getQueued()),
+                "dropped", String.valueOf(outbox.getDropped())
+            ));
+        }
+        if (messageMetrics.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + trf(
+                "stats.message-bytes",
+                "lines", String.valueOf(messageMetrics.getLines()),
+                "bytes", String.valueOf(messageMetrics.getAverageBytes())
+            ));
+        }
+    }
+
     private void sendPrivateMessage(org.bukkit.entity.Player sender, org.bukkit.entity.Player target, String message) {
-        ChatSettings settings = getSettings();
-        String resolvedMessage = getPlaceholderHook().apply(sender, message);
-        resolvedMessage = normalizeHex(resolvedMessage);
-
-        Component headComponent = Component.empty();
-        if (settings.isSkinRestorerHeads() && getSkinRestorerHeadHook() != null) {
-            headComponent = getSkinRestorerHeadHook().getHeadComponent(sender);
-        }
+        String resolvedMessage = getPlaceholderHook().applyToMessage(sender, message);
+        Component messageComponent = withClickableLinks(resolvedMessage, ChatTemplate.text(resolvedMessage));
 
-        Component toSender = buildPrivateComponent(sender, target, resolvedMessage, true, headComponent);
-        Component toTarget = buildPrivateComponent(target, sender, resolvedMessage, false, headComponent);
+        Component toSender = buildPrivateComponent(sender, target, messageComponent, true,
+            getHeadComponent(sender, ViewerClass.of(this, sender)));
+        Component toTarget = buildPrivateComponent(target, sender, messageComponent, false,
+            getHeadComponent(sender, ViewerClass.of(this, target)));
 
         sender.sendMessage(toSender);
         target.sendMessage(toTarget);
@@ -887,27 +1018,30 @@ public final class HakuneChatPlugin extends JavaPlugin {
     private Component buildPrivateComponent(
         org.bukkit.entity.Player viewer,
         org.bukkit.entity.Player other,
-        String message,
+        Component message,
         boolean outgoing,
         Component headComponent
     ) {
         ChatSettings settings = getSettings();
         boolean viewerBedrock = getBedrockDetector().isBedrock(viewer.getUniqueId());
-        String template;
+        ChatTemplate template;
         if (viewerBedrock) {
-            template = outgoing ? settings.getPmToBedrock() : settings.getPmFromBedrock();
+            template = outgoing ? settings.getPmToTemplateBedrock() : settings.getPmFromTemplateBedrock();
         } else {
-            template = outgoing ? settings.getPmToJava() : settings.getPmFromJava();
+            template = outgoing ? settings.getPmToTemplateJava() : settings.getPmFromTemplateJava();
         }
 
-        String formatted = getPlaceholderHook().apply(viewer, template);
-        formatted = normalizeHex(formatted)
-            .replace("{message}", message)
-            .replace("{world}", viewer.getWorld().getName())
-            .replace("{voice}", getVoiceDetector().getVoiceIndicator(other));
-
-        Component component = buildComponentWithHead(formatted, headComponent);
-        component = replacePlayerPlaceholder(component, buildPlayerComponent(viewer, other));
+        Component voiceComponent = template.uses(ChatTemplate.Slot.VOICE)
+            ? getVoiceDetector().getVoiceComponent(other)
+            : null;
+        Component component = template.render(getPlaceholderHook(), new ChatTemplate.Values(
+            viewer,
+            viewer.getWorld().getName(),
+            buildPlayerComponent(viewer, other),
+            message,
+            headComponent,
+            voiceComponent
+        ));
 
         if (!viewerBedrock) {
             Component replyButton = Component.text(" ")
@@ -916,84 +1050,18 @@ public final class HakuneChatPlugin extends JavaPlugin {
                     .hoverEvent(net.kyori.adventure.text.event.HoverEvent.showText(Component.text(tr("ui.reply-hover")))));
             component = component.append(replyButton);
         }
-        return withClickableLinks(component);
+        return component;
     }
 
     private Component buildPlayerComponent(org.bukkit.entity.Player viewer, org.bukkit.entity.Player subject) {
-        Component base = getStyledNameComponent(subject);
-        boolean viewerBedrock = getBedrockDetector().isBedrock(viewer.getUniqueId());
-        if (viewerBedrock) {
-            return base;
+        if (getBedrockDetector().isBedrock(viewer.getUniqueId())) {
+            return getStyledNameComponent(subject);
         }
-        String name = subject.getName();
-        return base.clickEvent(net.kyori.adventure.text.event.ClickEvent.suggestCommand("/msg " + name + " "))
-            .hoverEvent(net.kyori.adventure.text.event.HoverEvent.showText(Component.text(trf("ui.message-hover", "name", name))));
+        return getClickableNameComponent(subject);
     }
 
-    private Component buildComponentWithHead(String formatted, Component headComponent) {
-        if (formatted == null) {
-            return Component.empty();
-        }
-        if (!formatted.contains("{head}")) {
-            return LEGACY.deserialize(formatted);
-        }
-        String[] parts = formatted.split("\\{head\\}", -1);
-        Component result = Component.empty();
-        for (int i = 0; i < parts.length; i++) {
-            if (!parts[i].isEmpty()) {
-                result = result.append(LEGACY.deserialize(parts[i]));
-            }
-            if (i < parts.length - 1 && headComponent != null) {
-                result = result.append(headComponent);
-            }
-        }
-        return result;
-    }
-
-    private Component replacePlayerPlaceholder(Component component, Component playerComponent) {
-        return component.replaceText(builder -> builder.matchLiteral("{player}").replacement(playerComponent));
-    }
-
-    private String normalizeHex(String text) {
-        if (text == null || text.isEmpty()) {
-            return text;
-        }
-        return text.replaceAll("(?i)(?<!&)#([0-9a-f]{6})", "&#$1");
-    }
-
-    public Component withClickableLinks(Component component) {
-        Component withMarkdownLinks = component.replaceText(builder -> builder
-            .match(MARKDOWN_LINK_PATTERN)
-            .replacement((result, textBuilder) -> {
-                String label = result.group(1);
-                String rawUrl = result.group(2);
-                String url = toOpenableUrl(rawUrl);
-                return textBuilder.content(label)
-                    .clickEvent(ClickEvent.openUrl(url))
-                    .hoverEvent(HoverEvent.showText(Component.text(trf("ui.open-link-hover", "url", rawUrl))))
-                    .build();
-            }));
-        return withMarkdownLinks.replaceText(builder -> builder
-            .match(URL_PATTERN)
-            .replacement((result, textBuilder) -> {
-                String raw = result.group(1);
-                String url = toOpenableUrl(raw);
-                return textBuilder.content(raw)
-                    .clickEvent(ClickEvent.openUrl(url))
-                    .hoverEvent(HoverEvent.showText(Component.text(trf("ui.open-link-hover", "url", raw))))
-                    .build();
-            }));
-    }
-
-    private static String toOpenableUrl(String rawUrl) {
-        if (rawUrl == null) {
-            return "";
-        }
-        String lower = rawUrl.toLowerCase(java.util.Locale.ROOT);
-        if (lower.startsWith("http://") || lower.startsWith("https://")) {
-            return rawUrl;
-        }
-        return "https://" + rawUrl;
+    public Component withClickableLinks(String rawText, Component component) {
+        return chatLinks.apply(rawText, component);
     }
 
     @Override
@@ -1002,12 +1070,16 @@ public final class HakuneChatPlugin extends JavaPlugin {
         if (headMessageManager != null) {
             headMessageManager.clearAll();
         }
+        if (voiceDetector != null) {
+            voiceDetector.stop();
+        }
         if (telegramBridge != null) {
             telegramBridge.stop();
         }
         if (discordBridge != null) {
             discordBridge.stop();
         }
+        bridgeCursors.flush();
         if (liveNotifier != null) {
             liveNotifier.stop();
         }
@@ -1019,6 +1091,9 @@ public final class HakuneChatPlugin extends JavaPlugin {
         }
         if (tabManager != null) {
             tabManager.stop();
+        }
+        if (spatialIndex != null) {
+            spatialIndex.stop();
         }
     }
 
@@ -1132,8 +1207,8 @@ public final class HakuneChatPlugin extends JavaPlugin {
         ConfigurationSection root = cfg.getConfigurationSection("integration");
         if (root == null) {
             return new IntegrationSettings(
-                new TelegramSettings(false, "", "", 5, "", ""),
-                new IntegrationSettings.DiscordSettings(false, "", "", "", 5, "", ""),
+                new TelegramSettings(false, "", "", 5, "", "", 200, 500, 20, "merge", "polling", "0.0.0.0", 8443, "/telegram", "", ""),
+                new IntegrationSettings.DiscordSettings(false, "", "", "", 5, "", "", false, DEFAULT_DISCORD_GATEWAY),
                 new IntegrationSettings.NotificationSettings(false, 60, "", null, null, null, null)
             );
         }
@@ -1145,7 +1220,17 @@ public final class HakuneChatPlugin extends JavaPlugin {
             tg != null ? tg.getString("chat-id", "") : "",
             tg != null ? tg.getInt("poll-interval-seconds", 5) : 5,
             tg != null ? tg.getString("format-to-telegram", "[{type}] {player}: {message}") : "",
-            tg != null ? tg.getString("format-from-telegram", "&7[&dTG&7] &f{user}&7: &f{message}") : ""
+            tg != null ? tg.getString("format-from-telegram", "&7[&dTG&7] &f{user}&7: &f{message}") : "",
+            tg != null ? tg.getInt("queue-size", 200) : 200,
+            tg != null ? tg.getInt("batch-millis", 500) : 500,
+            tg != null ? tg.getInt("messages-per-minute", 20) : 20,
+            tg != null ? tg.getString("overflow", "merge") : "merge",
+            tg != null ? tg.getString("mode", "polling") : "polling",
+            tg != null ? tg.getString("webhook.bind", "0.0.0.0") : "0.0.0.0",
+            tg != null ? tg.getInt("webhook.port", 8443) : 8443,
+            tg != null ? tg.getString("webhook.path", "/telegram") : "/telegram",
+            tg != null ? tg.getString("webhook.secret-token", "") : "",
+            tg != null ? tg.getString("webhook.public-url", "") : ""
         );
 
         ConfigurationSection dc = root.getConfigurationSection("discord");
@@ -1156,7 +1241,9 @@ public final class HakuneChatPlugin extends JavaPlugin {
             dc != null ? dc.getString("channel-id", "") : "",
             dc != null ? dc.getInt("poll-interval-seconds", 5) : 5,
             dc != null ? dc.getString("format-to-discord", "[{type}] {player}: {message}") : "",
-            dc != null ? dc.getString("format-from-discord", "&7[&9DC&7] &f{user}&7: &f{message}") : ""
+            dc != null ? dc.getString("format-from-discord", "&7[&9DC&7] &f{user}&7: &f{message}") : "",
+            dc != null && dc.getBoolean("gateway", false),
+            dc != null ? dc.getString("gateway-url", DEFAULT_DISCORD_GATEWAY) : DEFAULT_DISCORD_GATEWAY
         );
 
         ConfigurationSection notif = root.getConfigurationSection("notifications");
@@ -1,27 +1,50 @@
 package com.hakune.chat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Transformation;
+import org.joml.AxisAngle4f;
+import org.joml.Vector3f;
 
-public final class HeadMessageManager {
+public final class HeadMessageManager implements Listener {
     private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
         .character('&')
         .hexColors()
         .build();
     private static final Pattern HEX_PATTERN = Pattern.compile("(?i)(?<!&)#([0-9a-f]{6})");
+    // Height of a player's passenger seat above its feet; display offsets are relative to it.
+    private static final double PASSENGER_HEIGHT = 1.8;
+    // How often the viewer set of a bubble is re-checked when a visibility radius is set.
+    private static final int VIEWER_REFRESH_TICKS = 10;
+    private static final int MAX_PARKED_PER_PLAYER = 4;
 
     private enum RenderMode {
         ARMOR_STAND,
+        TEXT_DISPLAY,
         NAME_TAG
     }
 
@@ -32,11 +55,29 @@ public final class HeadMessageManager {
 
     private final HakuneChatPlugin plugin;
     private final Map<UUID, ActiveMessage> activeMessages = new ConcurrentHashMap<>();
+    // Dense array walked by the ticker; every message knows its own slot for O(1) removal.
+    private ActiveMessage[] slots = new ActiveMessage[16];
+    private int activeCount;
+    // Hashed timing wheel of expirations, bucket = expire tick & wheelMask.
+    private List<ActiveMessage>[] wheel;
+    private int wheelMask;
+    private long currentTick;
+    private BukkitTask ticker;
+    private long tickCount;
+    private long tickNanos;
+    // Idle line entities per player, kept riding the player with no text until the next message.
+    private final Map<UUID, List<Entity>> parked = new HashMap<>();
+    private long spawnedEntities;
+    private long removedEntities;
+    private long reusedEntities;
 
     private boolean enabled;
     private String format;
     private int durationTicks;
     private double yOffset;
+    private double lineSpacing;
+    private double visibilityRadius;
+    private boolean poolEntities;
     private RenderMode renderMode;
     private ArmorStandFollowMode armorStandFollowMode;
     private String nameTagFormat;
@@ -47,9 +88,13 @@ public final class HeadMessageManager {
         this.format = "&f{player}&7: &f{message}";
         this.durationTicks = 60;
         this.yOffset = 2.2;
+        this.lineSpacing = 0.25;
+        this.visibilityRadius = 0.0;
+        this.poolEntities = true;
         this.renderMode = RenderMode.NAME_TAG;
         this.armorStandFollowMode = ArmorStandFollowMode.PASSENGER;
         this.nameTagFormat = "{base} &8| &f{message}";
+        buildWheel();
     }
 
     public void configure(
@@ -57,21 +102,35 @@ public final class HeadMessageManager {
         String format,
         int durationTicks,
         double yOffset,
+        double lineSpacing,
+        double visibilityRadius,
+        boolean poolEntities,
         String renderMode,
         String armorStandFollowMode,
         String nameTagFormat
     ) {
+        clearAll();
         this.enabled = enabled;
         this.format = (format == null || format.isBlank()) ? "&f{player}&7: &f{message}" : format;
         this.durationTicks = Math.max(20, durationTicks);
         this.yOffset = Math.max(1.5, yOffset);
-        this.renderMode = "armorstand".equalsIgnoreCase(renderMode) ? RenderMode.ARMOR_STAND : RenderMode.NAME_TAG;
+        this.lineSpacing = Math.max(0.0, lineSpacing);
+        this.visibilityRadius = Math.max(0.0, visibilityRadius);
+        this.poolEntities = poolEntities;
+        if ("armorstand".equalsIgnoreCase(renderMode)) {
+            this.renderMode = RenderMode.ARMOR_STAND;
+        } else if ("textdisplay".equalsIgnoreCase(renderMode)) {
+            this.renderMode = RenderMode.TEXT_DISPLAY;
+        } else {
+            this.renderMode = RenderMode.NAME_TAG;
+        }
         this.armorStandFollowMode = "teleport".equalsIgnoreCase(armorStandFollowMode)
             ? ArmorStandFollowMode.TELEPORT
             : ArmorStandFollowMode.PASSENGER;
         this.nameTagFormat = (nameTagFormat == null || nameTagFormat.isBlank())
             ? "{base} &8| &f{message}"
             : nameTagFormat;
+        buildWheel();
     }
 
     public void show(Player sender, String message) {
@@ -81,7 +140,6 @@ public final class HeadMessageManager {
         if (!plugin.isHeadMessageEnabledFor(sender.getUniqueId())) {
             return;
         }
-        clear(sender.getUniqueId());
 
         String template = normalizePlayerTemplate(format);
         String rendered = plugin.getPlaceholderHook().apply(sender, template);
@@ -91,30 +149,31 @@ public final class HeadMessageManager {
             .replace("{voice}", plugin.getVoiceDetector().getVoiceIndicator(sender))
             .replace("{world}", sender.getWorld().getName());
 
+        // Rapid follow-up messages reuse the entities that are already up.
+        ActiveMessage current = activeMessages.get(sender.getUniqueId());
+        if (current != null && current.sender == sender && updateInPlace(current, rendered)) {
+            schedule(current);
+            if (renderMode == RenderMode.NAME_TAG) {
+                plugin.refreshPlayerNameTag(sender);
+            }
+            return;
+        }
+        clear(sender.getUniqueId());
+
         if (renderMode == RenderMode.ARMOR_STAND) {
             spawnArmorStandMessage(sender, rendered);
             return;
         }
+        if (renderMode == RenderMode.TEXT_DISPLAY) {
+            spawnTextDisplayMessage(sender, rendered);
+            return;
+        }
 
         String[] lines = rendered.split("\\R");
         String primaryLine = lines.length == 0 ? rendered : lines[0];
         boolean multiline = lines.length > 1;
-        List<ArmorStand> extraLines = spawnNametagExtraLines(sender, lines);
-        BukkitTask followTask = null;
-        if (!extraLines.isEmpty()) {
-            followTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-                if (!sender.isOnline()) {
-                    clear(sender.getUniqueId());
-                    return;
-                }
-                teleportExtraLines(sender, extraLines);
-            }, 0L, 1L);
-        }
-        BukkitTask expireTask = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            clear(sender.getUniqueId());
-            plugin.refreshPlayerNameTag(sender);
-        }, durationTicks);
-        activeMessages.put(sender.getUniqueId(), new ActiveMessage(primaryLine, multiline, null, extraLines, followTask, expireTask));
+        List<Entity> extraLines = spawnNametagExtraLines(sender, lines);
+        register(new ActiveMessage(sender, primaryLine, multiline, extraLines, false));
         plugin.refreshPlayerNameTag(sender);
     }
 
@@ -142,96 +201,405 @@ public final class HeadMessageManager {
         if (active == null) {
             return;
         }
-        if (active.followTask != null) {
-            active.followTask.cancel();
+        unregister(active);
+        for (Entity line : active.lines) {
+            if (line != null && line.isValid() && !park(active, line)) {
+                removeEntity(line);
+            }
+        }
+    }
+
+    public void clearAll() {
+        for (UUID uuid : activeMessages.keySet()) {
+            clear(uuid);
+        }
+        for (UUID uuid : new ArrayList<>(parked.keySet())) {
+            release(uuid);
+        }
+    }
+
+    public long getSpawnedEntities() {
+        return spawnedEntities;
+    }
+
+    public long getRemovedEntities() {
+        return removedEntities;
+    }
+
+    public long getReusedEntities() {
+        return reusedEntities;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        clear(event.getPlayer().getUniqueId());
+        release(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        clear(event.getPlayer().getUniqueId());
+        release(event.getPlayer().getUniqueId());
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public long getAverageTickMicros() {
+        return tickCount == 0 ? 0 : tickNanos / tickCount / 1000L;
+    }
+
+    // One ticker for all messages; it only runs while something is on screen.
+    private void tick() {
+        long started = System.nanoTime();
+        currentTick++;
+        expireDue();
+        for (int i = activeCount - 1; i >= 0; i--) {
+            ActiveMessage active = slots[i];
+            if (!active.sender.isOnline()) {
+                clear(active.sender.getUniqueId());
+                release(active.sender.getUniqueId());
+                continue;
+            }
+            if (active.follow) {
+                followSender(active);
+            }
+            if (visibilityRadius > 0 && (currentTick + i) % VIEWER_REFRESH_TICKS == 0) {
+                updateViewers(active);
+            }
+        }
+        tickNanos += System.nanoTime() - started;
+        tickCount++;
+        if (activeCount == 0 && ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    private void expireDue() {
+        List<ActiveMessage> bucket = wheel[(int) (currentTick & wheelMask)];
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            ActiveMessage active = bucket.get(i);
+            boolean stale = active.slot < 0 || (active.expireTick & wheelMask) != (currentTick & wheelMask);
+            if (!stale && active.expireTick > currentTick) {
+                continue;
+            }
+            bucket.set(i, bucket.get(bucket.size() - 1));
+            bucket.remove(bucket.size() - 1);
+            if (!stale) {
+                clear(active.sender.getUniqueId());
+                plugin.refreshPlayerNameTag(active.sender);
+            }
+        }
+    }
+
+    private void register(ActiveMessage active) {
+        activeMessages.put(active.sender.getUniqueId(), active);
+        if (activeCount == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
         }
-        if (active.expireTask != null) {
-            active.expireTask.cancel();
+        active.slot = activeCount;
+        slots[activeCount++] = active;
+        schedule(active);
+        updateViewers(active);
+        if (ticker == null) {
+            ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    // With a visibility radius the lines are hidden by default and shown only to nearby
+    // players that have head messages on; everyone else gets no packets for them.
+    private void updateViewers(ActiveMessage active) {
+        if (visibilityRadius <= 0) {
+            return;
         }
-        if (active.stand != null && active.stand.isValid()) {
-            active.stand.remove();
+        Set<UUID> current = new HashSet<>();
+        for (Player viewer : plugin.getSpatialIndex().nearby(active.sender, visibilityRadius)) {
+            if (viewer != active.sender && !plugin.isHeadMessageEnabledFor(viewer.getUniqueId())) {
+                continue;
+            }
+            current.add(viewer.getUniqueId());
+            if (active.viewers.add(viewer.getUniqueId())) {
+                for (Entity line : active.lines) {
+                    viewer.showEntity(plugin, line);
+                }
+            }
         }
-        if (active.extraStands != null) {
-            for (ArmorStand stand : active.extraStands) {
-                if (stand != null && stand.isValid()) {
-                    stand.remove();
+        for (Iterator<UUID> it = active.viewers.iterator(); it.hasNext(); ) {
+            UUID viewerId = it.next();
+            if (current.contains(viewerId)) {
+                continue;
+            }
+            it.remove();
+            Player viewer = plugin.getServer().getPlayer(viewerId);
+            if (viewer != null) {
+                for (Entity line : active.lines) {
+                    viewer.hideEntity(plugin, line);
                 }
             }
         }
     }
 
-    public void clearAll() {
-        for (UUID uuid : activeMessages.keySet()) {
-            clear(uuid);
+    // Blanks an expired line and keeps it for the sender's next message.
+    private boolean park(ActiveMessage active, Entity line) {
+        if (!poolEntities || !active.sender.isOnline() || line.getWorld() != active.sender.getWorld()) {
+            return false;
         }
+        List<Entity> pool = parked.computeIfAbsent(active.sender.getUniqueId(), key -> new ArrayList<>());
+        if (pool.size() >= MAX_PARKED_PER_PLAYER) {
+            return false;
+        }
+        for (UUID viewerId : active.viewers) {
+            Player viewer = plugin.getServer().getPlayer(viewerId);
+            if (viewer != null) {
+                viewer.hideEntity(plugin, line);
+            }
+        }
+        if (line instanceof TextDisplay display) {
+            display.text(Component.empty());
+        } else {
+            line.setCustomNameVisible(false);
+            line.eject();
+            line.leaveVehicle();
+        }
+        pool.add(line);
+        return true;
     }
 
-    private void spawnArmorStandMessage(Player sender, String rendered) {
-        String[] lines = rendered.split("\\R");
+    private <T extends Entity> T takeParked(Player sender, Class<T> type) {
+        List<Entity> pool = parked.get(sender.getUniqueId());
+        if (pool == null) {
+            return null;
+        }
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            Entity entity = pool.get(i);
+            if (!entity.isValid() || entity.getWorld() != sender.getWorld()) {
+                pool.remove(i);
+                removeEntity(entity);
+                continue;
+            }
+            if (type.isInstance(entity)) {
+                pool.remove(i);
+                reusedEntities++;
+                return type.cast(entity);
+            }
+        }
+        return null;
+    }
+
+    private void release(UUID playerId) {
+        List<Entity> pool = parked.remove(playerId);
+        if (pool == null) {
+            return;
+        }
+        for (Entity entity : pool) {
+            removeEntity(entity);
+        }
+    }
+
+    private void removeEntity(Entity entity) {
+        if (entity.isValid()) {
+            entity.remove();
+        }
+        removedEntities++;
+    }
+
+    private void unregister(ActiveMessage active) {
+        int slot = active.slot;
+        if (slot < 0) {
+            return;
+        }
+        ActiveMessage last = slots[--activeCount];
+        slots[slot] = last;
+        last.slot = slot;
+        slots[activeCount] = null;
+        active.slot = -1;
+    }
+
+    // Rescheduling leaves the old wheel entry behind; expireDue drops it as stale.
+    private void schedule(ActiveMessage active) {
+        active.expireTick = currentTick + durationTicks;
+        wheel[(int) (active.expireTick & wheelMask)].add(active);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void buildWheel() {
+        int size = Integer.highestOneBit(Math.max(1, durationTicks)) << 1;
+        wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        wheelMask = size - 1;
+    }
+
+    private boolean updateInPlace(ActiveMessage active, String rendered) {
+        if (renderMode == RenderMode.NAME_TAG) {
+            String[] lines = rendered.split("\\R");
+            List<String> extra = new ArrayList<>();
+            for (int i = 1; i < lines.length; i++) {
+                if (lines[i] != null && !lines[i].isBlank()) {
+                    extra.add(lines[i]);
+                }
+            }
+            if (!retext(active.lines, extra)) {
+                return false;
+            }
+            active.message = lines.length == 0 ? rendered : lines[0];
+            active.multiline = lines.length > 1;
+            return true;
+        }
+        if (!retext(active.lines, cleanLines(rendered))) {
+            return false;
+        }
+        active.message = rendered;
+        active.multiline = active.lines.size() > 1;
+        return true;
+    }
+
+    private static boolean retext(List<Entity> entities, List<String> lines) {
+        if (entities.size() != lines.size()) {
+            return false;
+        }
+        for (Entity entity : entities) {
+            if (entity == null || !entity.isValid()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            Component text = LEGACY.deserialize(lines.get(i));
+            Entity entity = entities.get(i);
+            if (entity instanceof TextDisplay display) {
+                display.text(text);
+            } else {
+                entity.customName(text);
+            }
+        }
+        return true;
+    }
+
+    private static List<String> cleanLines(String rendered) {
         List<String> cleanLines = new ArrayList<>();
-        for (String line : lines) {
+        for (String line : rendered.split("\\R")) {
             if (line != null && !line.isBlank()) {
                 cleanLines.add(line);
             }
         }
+        return cleanLines;
+    }
+
+    private void spawnArmorStandMessage(Player sender, String rendered) {
+        List<String> cleanLines = cleanLines(rendered);
         if (cleanLines.isEmpty()) {
             return;
         }
 
-        List<ArmorStand> stands = new ArrayList<>();
+        List<Entity> stands = new ArrayList<>();
         int total = cleanLines.size();
         for (int i = 0; i < total; i++) {
             String line = cleanLines.get(i);
             int offsetIndex = (total - 1) - i;
             Location location = sender.getLocation().add(0.0, yOffset + (offsetIndex * 0.24), 0.0);
-            stands.add(spawnLine(sender, line, location));
+            stands.add(standLine(sender, line, location));
         }
 
-        ArmorStand bottom = stands.get(total - 1);
         if (armorStandFollowMode == ArmorStandFollowMode.PASSENGER) {
-            sender.addPassenger(bottom);
-            ArmorStand vehicle = bottom;
+            Entity vehicle = stands.get(total - 1);
+            sender.addPassenger(vehicle);
             for (int i = total - 2; i >= 0; i--) {
-                ArmorStand higher = stands.get(i);
+                Entity higher = stands.get(i);
                 vehicle.addPassenger(higher);
                 vehicle = higher;
             }
-            BukkitTask expireTask = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                clear(sender.getUniqueId());
-                plugin.refreshPlayerNameTag(sender);
-            }, durationTicks);
-            activeMessages.put(sender.getUniqueId(), new ActiveMessage(rendered, total > 1, bottom, stands, null, expireTask));
-            return;
         }
+        register(new ActiveMessage(
+            sender,
+            rendered,
+            total > 1,
+            stands,
+            armorStandFollowMode == ArmorStandFollowMode.TELEPORT
+        ));
+    }
 
-        long[] elapsed = new long[] {0L};
-        BukkitTask followTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-            if (!sender.isOnline()) {
-                clear(sender.getUniqueId());
-                return;
-            }
-            elapsed[0] += 1L;
-            if (elapsed[0] >= durationTicks) {
-                clear(sender.getUniqueId());
-                return;
+    private void followSender(ActiveMessage active) {
+        Location base = active.sender.getLocation();
+        int total = active.lines.size();
+        for (int i = 0; i < total; i++) {
+            Entity stand = active.lines.get(i);
+            if (stand == null || !stand.isValid()) {
+                continue;
             }
-            int currentTotal = stands.size();
-            for (int i = 0; i < currentTotal; i++) {
-                ArmorStand stand = stands.get(i);
-                if (stand == null || !stand.isValid()) {
-                    continue;
-                }
-                int offsetIndex = (currentTotal - 1) - i;
-                Location next = sender.getLocation().add(0.0, yOffset + (offsetIndex * 0.24), 0.0);
-                stand.teleport(next);
+            int offsetIndex = (total - 1) - i;
+            stand.teleport(base.clone().add(0.0, yOffset + (offsetIndex * 0.24), 0.0));
+        }
+    }
+
+    // Every line is a TextDisplay riding the player; the display transform lifts it to
+    // its line, so the client moves it with the player and nothing is teleported per tick.
+    private void spawnTextDisplayMessage(Player sender, String rendered) {
+        List<String> cleanLines = cleanLines(rendered);
+        if (cleanLines.isEmpty()) {
+            return;
+        }
+
+        List<Entity> displays = new ArrayList<>();
+        int total = cleanLines.size();
+        for (int i = 0; i < total; i++) {
+            int offsetIndex = (total - 1) - i;
+            displays.add(displayLine(sender, cleanLines.get(i), yOffset + (offsetIndex * lineSpacing)));
+        }
+        register(new ActiveMessage(sender, rendered, total > 1, displays, false));
+    }
+
+    private TextDisplay displayLine(Player sender, String renderedLine, double height) {
+        Component text = LEGACY.deserialize(renderedLine);
+        Location location = sender.getLocation().add(0.0, PASSENGER_HEIGHT, 0.0);
+        TextDisplay display = takeParked(sender, TextDisplay.class);
+        if (display != null) {
+            display.text(text);
+            display.setTransformation(lineTransformation(height));
+            if (display.getVehicle() != sender) {
+                display.teleport(location);
+                sender.addPassenger(display);
             }
-        }, 0L, 1L);
-        activeMessages.put(sender.getUniqueId(), new ActiveMessage(rendered, total > 1, bottom, stands, followTask, null));
+            return display;
+        }
+        display = sender.getWorld().spawn(location, TextDisplay.class, td -> {
+            td.setVisibleByDefault(visibilityRadius <= 0);
+            td.text(text);
+            td.setBillboard(Display.Billboard.CENTER);
+            td.setDefaultBackground(false);
+            td.setBackgroundColor(Color.fromARGB(0, 0, 0, 0));
+            td.setShadowed(true);
+            td.setTransformation(lineTransformation(height));
+            td.setPersistent(false);
+        });
+        spawnedEntities++;
+        sender.addPassenger(display);
+        return display;
     }
 
-    private ArmorStand spawnLine(Player sender, String renderedLine, Location location) {
+    private static Transformation lineTransformation(double height) {
+        return new Transformation(
+            new Vector3f(0.0f, (float) (height - PASSENGER_HEIGHT), 0.0f),
+            new AxisAngle4f(),
+            new Vector3f(1.0f, 1.0f, 1.0f),
+            new AxisAngle4f()
+        );
+    }
+
+    private ArmorStand standLine(Player sender, String renderedLine, Location location) {
         Component text = LEGACY.deserialize(renderedLine);
+        ArmorStand stand = takeParked(sender, ArmorStand.class);
+        if (stand != null) {
+            stand.teleport(location);
+            stand.customName(text);
+            stand.setCustomNameVisible(true);
+            return stand;
+        }
+        spawnedEntities++;
         return sender.getWorld().spawn(location, ArmorStand.class, as -> {
+            as.setVisibleByDefault(visibilityRadius <= 0);
             // Marker stands have zero height; passenger stacking collapses all lines to one level.
             as.setMarker(false);
             as.setInvisible(true);
@@ -248,7 +616,7 @@ public final class HeadMessageManager {
         });
     }
 
-    private static String normalizeHex(String text) {
+    static String normalizeHex(String text) {
         if (text == null || text.isEmpty()) {
             return text;
         }
@@ -264,46 +632,39 @@ public final class HeadMessageManager {
             .replace("%player%", "{player}");
     }
 
-    private List<ArmorStand> spawnNametagExtraLines(Player sender, String[] lines) {
+    private List<Entity> spawnNametagExtraLines(Player sender, String[] lines) {
         if (lines == null || lines.length <= 1) {
             return List.of();
         }
-        List<ArmorStand> stands = new ArrayList<>();
+        List<Entity> displays = new ArrayList<>();
         for (int i = 1; i < lines.length; i++) {
             String line = lines[i];
             if (line == null || line.isBlank()) {
                 continue;
             }
             int offsetIndex = i - 1;
-            Location location = sender.getLocation().add(0.0, yOffset - 0.25 - (offsetIndex * 0.24), 0.0);
-            Component text = LEGACY.deserialize(line);
-            ArmorStand stand = sender.getWorld().spawn(location, ArmorStand.class, as -> {
-                as.setMarker(true);
-                as.setInvisible(true);
-                as.setInvulnerable(true);
-                as.setGravity(false);
-                as.setSmall(true);
-                as.setSilent(true);
-                as.setCustomNameVisible(true);
-                as.customName(text);
-                as.setPersistent(false);
-            });
-            stands.add(stand);
-        }
-        return stands;
-    }
-
-    private void teleportExtraLines(Player sender, List<ArmorStand> stands) {
-        for (int i = 0; i < stands.size(); i++) {
-            ArmorStand stand = stands.get(i);
-            if (stand == null || !stand.isValid()) {
-                continue;
-            }
-            Location next = sender.getLocation().add(0.0, yOffset - 0.25 - (i * 0.24), 0.0);
-            stand.teleport(next);
+            displays.add(displayLine(sender, line, yOffset - 0.25 - (offsetIndex * lineSpacing)));
         }
+        return displays;
     }
 
-    private record ActiveMessage(String message, boolean multiline, ArmorStand stand, List<ArmorStand> extraStands, BukkitTask followTask, BukkitTask expireTask) {
+    private static final class ActiveMessage {
+        private final Player sender;
+        private final List<Entity> lines;
+        // Teleported to the sender every tick (armorstand teleport mode only).
+        private final boolean follow;
+        private final Set<UUID> viewers = new HashSet<>();
+        private String message;
+        private boolean multiline;
+        private long expireTick;
+        private int slot = -1;
+
+        private ActiveMessage(Player sender, String message, boolean multiline, List<Entity> lines, boolean follow) {
+            this.sender = sender;
+            this.message = message;
+            this.multiline = multiline;
+            this.lines = lines;
+            this.follow = follow;
+        }
     }
 }
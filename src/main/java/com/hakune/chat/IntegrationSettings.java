@@ -33,6 +33,8 @@ public final class IntegrationSettings {
         private final int pollIntervalSeconds;
         private final String formatToDiscord;
         private final String formatFromDiscord;
+        private final boolean gateway;
+        private final String gatewayUrl;
 
         public DiscordSettings(
             boolean enabled,
@@ -41,7 +43,9 @@ public final class IntegrationSettings {
             String channelId,
             int pollIntervalSeconds,
             String formatToDiscord,
-            String formatFromDiscord
+            String formatFromDiscord,
+            boolean gateway,
+            String gatewayUrl
         ) {
             this.enabled = enabled;
             this.webhookUrl = webhookUrl;
@@ -50,6 +54,8 @@ public final class IntegrationSettings {
             this.pollIntervalSeconds = pollIntervalSeconds;
             this.formatToDiscord = formatToDiscord;
             this.formatFromDiscord = formatFromDiscord;
+            this.gateway = gateway;
+            this.gatewayUrl = gatewayUrl;
         }
 
         public boolean isEnabled() {
@@ -79,6 +85,14 @@ public final class IntegrationSettings {
         public String getFormatFromDiscord() {
             return formatFromDiscord;
         }
+
+        public boolean isGateway() {
+            return gateway;
+        }
+
+        public String getGatewayUrl() {
+            return gatewayUrl;
+        }
     }
 
     public static final class NotificationSettings {
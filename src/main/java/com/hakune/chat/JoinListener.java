@@ -1,8 +1,10 @@
 package com.hakune.chat;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -11,12 +13,6 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 public final class JoinListener implements Listener {
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
-        .character('&')
-        .hexColors()
-        .build();
-    private static final Pattern HEX_PATTERN = Pattern.compile("(?i)(?<!&)#([0-9a-f]{6})");
-
     private final HakuneChatPlugin plugin;
 
     public JoinListener(HakuneChatPlugin plugin) {
@@ -25,6 +21,9 @@ public final class JoinListener implements Listener {
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
+        if (plugin.getTabManager() != null) {
+            plugin.getTabManager().handleJoin(event.getPlayer());
+        }
         ChatSettings settings = plugin.getSettings();
         if (!settings.isJoinMessageEnabled()) {
             event.joinMessage(null);
@@ -32,22 +31,15 @@ public final class JoinListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        Component headComponent = Component.empty();
-        if (settings.isSkinRestorerHeads() && plugin.getSkinRestorerHeadHook() != null) {
-            headComponent = plugin.getSkinRestorerHeadHook().getHeadComponent(player);
-        }
-
         event.joinMessage(null);
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            Component component = buildComponentForViewer(player, viewer, true, headComponent);
-            viewer.sendMessage(component);
-        }
-        Component consoleComponent = buildComponentForViewer(player, null, true, headComponent);
-        Bukkit.getConsoleSender().sendMessage(consoleComponent);
+        broadcast(player, Bukkit.getOnlinePlayers(), true);
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
+        if (plugin.getTabManager() != null) {
+            plugin.getTabManager().handleQuit(event.getPlayer());
+        }
         ChatSettings settings = plugin.getSettings();
         if (!settings.isQuitMessageEnabled()) {
             event.quitMessage(null);
@@ -55,69 +47,41 @@ public final class JoinListener implements Listener {
         }
 
         Player player = event.getPlayer();
-        Component headComponent = Component.empty();
-        if (settings.isSkinRestorerHeads() && plugin.getSkinRestorerHeadHook() != null) {
-            headComponent = plugin.getSkinRestorerHeadHook().getHeadComponent(player);
-        }
-
         event.quitMessage(null);
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            if (viewer.getUniqueId().equals(player.getUniqueId())) {
-                continue;
-            }
-            Component component = buildComponentForViewer(player, viewer, false, headComponent);
-            viewer.sendMessage(component);
-        }
-        Component consoleComponent = buildComponentForViewer(player, null, false, headComponent);
-        Bukkit.getConsoleSender().sendMessage(consoleComponent);
-    }
-
-    private static String normalizeHex(String text) {
-        if (text == null || text.isEmpty()) {
-            return text;
-        }
-        return HEX_PATTERN.matcher(text).replaceAll("&#$1");
+        List<Player> viewers = new ArrayList<>(Bukkit.getOnlinePlayers());
+        viewers.removeIf(viewer -> viewer.getUniqueId().equals(player.getUniqueId()));
+        broadcast(player, viewers, false);
     }
 
-    private static Component buildComponentWithHead(String formatted, Component headComponent) {
-        if (formatted == null) {
-            return Component.empty();
+    private void broadcast(Player subject, Iterable<? extends Player> viewers, boolean join) {
+        for (Map.Entry<ViewerClass, List<Player>> group : ViewerClass.partition(plugin, viewers).entrySet()) {
+            Component component = buildComponentForViewer(subject, group.getKey(), join);
+            Audience.audience(group.getValue()).sendMessage(component);
         }
-        if (!formatted.contains("{head}")) {
-            return LEGACY.deserialize(formatted);
-        }
-        String[] parts = formatted.split("\\{head\\}", -1);
-        Component result = Component.empty();
-        for (int i = 0; i < parts.length; i++) {
-            if (!parts[i].isEmpty()) {
-                result = result.append(LEGACY.deserialize(parts[i]));
-            }
-            if (i < parts.length - 1 && headComponent != null) {
-                result = result.append(headComponent);
-            }
-        }
-        return result;
+        Component consoleComponent = buildComponentForViewer(subject, ViewerClass.CONSOLE, join);
+        Bukkit.getConsoleSender().sendMessage(consoleComponent);
     }
 
     private Component buildComponentForViewer(
         Player subject,
-        Player viewer,
-        boolean join,
-        Component headComponent
+        ViewerClass viewerClass,
+        boolean join
     ) {
         ChatSettings settings = plugin.getSettings();
-        boolean viewerBedrock = viewer != null && plugin.getBedrockDetector().isBedrock(viewer.getUniqueId());
-        String template = (settings.isSeparateBedrockFormat() && viewerBedrock)
-            ? (join ? settings.getJoinFormatBedrock() : settings.getQuitFormatBedrock())
-            : (join ? settings.getJoinFormatJava() : settings.getQuitFormatJava());
-
-        String formatted = plugin.getPlaceholderHook().apply(subject, template);
-        formatted = normalizeHex(formatted)
-            .replace("{voice}", plugin.getVoiceDetector().getVoiceIndicator(subject))
-            .replace("{world}", subject.getWorld().getName());
+        ChatTemplate template = (settings.isSeparateBedrockFormat() && viewerClass.isBedrock())
+            ? (join ? settings.getJoinTemplateBedrock() : settings.getQuitTemplateBedrock())
+            : (join ? settings.getJoinTemplateJava() : settings.getQuitTemplateJava());
 
-        Component component = buildComponentWithHead(formatted, headComponent);
-        return component.replaceText(builder -> builder.matchLiteral("{player}")
-            .replacement(plugin.getStyledNameComponent(subject)));
+        Component voiceComponent = template.uses(ChatTemplate.Slot.VOICE)
+            ? plugin.getVoiceDetector().getVoiceComponent(subject)
+            : null;
+        return template.render(plugin.getPlaceholderHook(), new ChatTemplate.Values(
+            subject,
+            subject.getWorld().getName(),
+            plugin.getStyledNameComponent(subject),
+            null,
+            plugin.getHeadComponent(subject, viewerClass),
+            voiceComponent
+        ));
     }
 }
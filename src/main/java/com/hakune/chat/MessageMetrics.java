@@ -0,0 +1,45 @@
+package com.hakune.chat;
+
+import java.util.concurrent.atomic.LongAdder;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+// Serialized size of delivered chat lines. Measured once per rendered component,
+// counted once per recipient; disabled by default since serializing costs time.
+public final class MessageMetrics {
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private volatile boolean enabled;
+
+    public void configure(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int measure(Component component) {
+        if (!enabled || component == null) {
+            return 0;
+        }
+        return GsonComponentSerializer.gson().serialize(component).getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+    }
+
+    public void record(int size, int recipients) {
+        if (!enabled || recipients <= 0) {
+            return;
+        }
+        lines.add(recipients);
+        bytes.add((long) size * recipients);
+    }
+
+    public long getLines() {
+        return lines.sum();
+    }
+
+    public long getAverageBytes() {
+        long count = lines.sum();
+        return count == 0 ? 0 : bytes.sum() / count;
+    }
+}
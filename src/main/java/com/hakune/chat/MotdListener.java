@@ -41,7 +41,7 @@ public final class MotdListener implements Listener {
         event.setMotd(SECTION_SERIALIZER.serialize(component));
     }
 
-    private static String normalizeHex(String text) {
+    static String normalizeHex(String text) {
         if (text == null || text.isEmpty()) {
             return text;
         }
@@ -0,0 +1,203 @@
+package com.hakune.chat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+// Name-tag teams, tracked per scoreboard. Viewers sharing a scoreboard (usually the
+// main one) are handled once, and team prefix/suffix/entry are only touched on change.
+// Main thread only.
+public final class NameTagTeams {
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
+        .character('&')
+        .hexColors()
+        .build();
+    private static final LegacyComponentSerializer SECTION = LegacyComponentSerializer.legacySection();
+    private static final String TEAM_PREFIX = "hcnt";
+
+    private final Map<UUID, Wanted> wanted = new HashMap<>();
+    private final Map<Scoreboard, Map<String, TeamState>> boards = new HashMap<>();
+    private long teamUpdates;
+
+    // Distinct scoreboards of online viewers; boards nobody looks at anymore are forgotten.
+    public List<Scoreboard> viewerBoards() {
+        List<Scoreboard> result = new ArrayList<>(1);
+        for (Player viewer : Bukkit.getOnlinePlayers()) {
+            Scoreboard board = viewer.getScoreboard();
+            if (board != null && !containsBoard(result, board)) {
+                result.add(board);
+            }
+        }
+        boards.keySet().removeIf(board -> !containsBoard(result, board));
+        return result;
+    }
+
+    public void apply(Player subject, String format, List<Scoreboard> viewerBoards) {
+        Wanted target = wanted(subject, format);
+        for (Scoreboard board : viewerBoards) {
+            sync(board, target);
+        }
+    }
+
+    // A joining viewer only costs work when it brings a scoreboard we have not synced yet.
+    public void addViewer(Player viewer) {
+        Scoreboard board = viewer.getScoreboard();
+        if (board == null || boards.containsKey(board)) {
+            return;
+        }
+        for (Wanted target : wanted.values()) {
+            sync(board, target);
+        }
+    }
+
+    public void remove(Player subject, List<Scoreboard> viewerBoards) {
+        Wanted target = wanted.remove(subject.getUniqueId());
+        if (target == null) {
+            // Never applied (or already removed): no team state to take down.
+            return;
+        }
+        for (Scoreboard board : viewerBoards) {
+            Map<String, TeamState> teams = boards.get(board);
+            TeamState state = teams != null ? teams.remove(target.teamName()) : null;
+            if (state == null) {
+                continue;
+            }
+            try {
+                state.team.removeEntry(subject.getName());
+                if (state.team.getEntries().isEmpty()) {
+                    state.team.unregister();
+                }
+                teamUpdates++;
+            } catch (IllegalStateException ignored) {
+                // Already unregistered by someone else.
+            }
+        }
+    }
+
+    public long getTeamUpdates() {
+        return teamUpdates;
+    }
+
+    private Wanted wanted(Player subject, String format) {
+        Wanted previous = wanted.get(subject.getUniqueId());
+        if (previous != null && previous.format().equals(format)) {
+            return previous;
+        }
+        String[] parts = splitByPlayerToken(format);
+        Wanted target = new Wanted(
+            format,
+            teamName(subject),
+            subject.getName(),
+            toSectionLegacy(parts[0]),
+            toSectionLegacy(parts[1])
+        );
+        wanted.put(subject.getUniqueId(), target);
+        return target;
+    }
+
+    private void sync(Scoreboard board, Wanted target) {
+        Map<String, TeamState> teams = boards.computeIfAbsent(board, key -> new HashMap<>());
+        TeamState state = teams.get(target.teamName());
+        try {
+            if (state == null) {
+                Team team = board.getTeam(target.teamName());
+                if (team == null) {
+                    team = board.registerNewTeam(target.teamName());
+                }
+                state = new TeamState(team);
+                teams.put(target.teamName(), state);
+            }
+            if (!target.prefix().equals(state.prefix)) {
+                setPrefix(state.team, target.prefix());
+                state.prefix = target.prefix();
+                teamUpdates++;
+            }
+            if (!target.suffix().equals(state.suffix)) {
+                setSuffix(state.team, target.suffix());
+                state.suffix = target.suffix();
+                teamUpdates++;
+            }
+            if (!target.entry().equals(state.entry)) {
+                if (!state.team.hasEntry(target.entry())) {
+                    state.team.addEntry(target.entry());
+                    teamUpdates++;
+                }
+                state.entry = target.entry();
+            }
+        } catch (IllegalStateException ex) {
+            // Team was unregistered behind our back; rebuild it next time.
+            teams.remove(target.teamName());
+        }
+    }
+
+    private static boolean containsBoard(List<Scoreboard> list, Scoreboard board) {
+        for (Scoreboard candidate : list) {
+            if (candidate == board) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] splitByPlayerToken(String format) {
+        if (format == null || format.isEmpty()) {
+            return new String[] {"", ""};
+        }
+        int idx = format.indexOf("{player}");
+        if (idx < 0) {
+            return new String[] {format, ""};
+        }
+        String prefix = format.substring(0, idx);
+        String suffix = format.substring(idx + "{player}".length());
+        return new String[] {prefix, suffix};
+    }
+
+    private static String toSectionLegacy(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return SECTION.serialize(LEGACY.deserialize(text));
+    }
+
+    private static void setPrefix(Team team, String prefix) {
+        try {
+            team.setPrefix(prefix);
+        } catch (IllegalArgumentException ex) {
+            team.setPrefix(prefix.length() > 64 ? prefix.substring(0, 64) : "");
+        }
+    }
+
+    private static void setSuffix(Team team, String suffix) {
+        try {
+            team.setSuffix(suffix);
+        } catch (IllegalArgumentException ex) {
+            team.setSuffix(suffix.length() > 64 ? suffix.substring(0, 64) : "");
+        }
+    }
+
+    private static String teamName(Player player) {
+        String compact = player.getUniqueId().toString().replace("-", "");
+        return TEAM_PREFIX + compact.substring(0, 12);
+    }
+
+    private record Wanted(String format, String teamName, String entry, String prefix, String suffix) {
+    }
+
+    private static final class TeamState {
+        private final Team team;
+        private String prefix;
+        private String suffix;
+        private String entry;
+
+        private TeamState(Team team) {
+            this.team = team;
+        }
+    }
+}
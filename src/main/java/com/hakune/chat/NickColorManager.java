@@ -4,9 +4,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -15,15 +19,19 @@ import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-public final class NickColorManager {
-    private final JavaPlugin plugin;
+public final class NickColorManager implements Listener {
+    private final HakuneChatPlugin plugin;
     private final File file;
     private final FileConfiguration config;
     private final Map<UUID, NameStyle> styles = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedName> names = new ConcurrentHashMap<>();
 
-    public NickColorManager(JavaPlugin plugin) {
+    public NickColorManager(HakuneChatPlugin plugin) {
         this.plugin = plugin;
         this.file = new File(plugin.getDataFolder(), "nickcolors.yml");
         this.config = YamlConfiguration.loadConfiguration(file);
@@ -31,7 +39,42 @@ public final class NickColorManager {
     }
 
     public Component getNameComponent(Player player) {
+        return cachedName(player).base();
+    }
+
+    public Component getClickableNameComponent(Player player) {
+        return cachedName(player).clickable();
+    }
+
+    public void invalidate(UUID uuid) {
+        names.remove(uuid);
+    }
+
+    public void invalidateAll() {
+        names.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    private CachedName cachedName(Player player) {
         Component displayName = player.displayName();
+        CachedName cached = names.get(player.getUniqueId());
+        if (cached != null && Objects.equals(cached.source(), displayName)) {
+            return cached;
+        }
+        Component base = buildNameComponent(player, displayName);
+        String name = player.getName();
+        Component clickable = base.clickEvent(ClickEvent.suggestCommand("/msg " + name + " "))
+            .hoverEvent(HoverEvent.showText(Component.text(plugin.trf("ui.message-hover", "name", name)).color(NamedTextColor.GRAY)));
+        cached = new CachedName(displayName, base, clickable);
+        names.put(player.getUniqueId(), cached);
+        return cached;
+    }
+
+    private Component buildNameComponent(Player player, Component displayName) {
         NameStyle style = styles.get(player.getUniqueId());
         if (style == null) {
             if (displayName != null) {
@@ -54,6 +97,7 @@ public final class NickColorManager {
             return false;
         }
         styles.put(player.getUniqueId(), new SolidStyle(color));
+        invalidate(player.getUniqueId());
         saveStyle(player.getUniqueId(), "color", toHex(color), null);
         applyToPlayer(player);
         return true;
@@ -66,6 +110,7 @@ public final class NickColorManager {
             return false;
         }
         styles.put(player.getUniqueId(), new GradientStyle(from, to));
+        invalidate(player.getUniqueId());
         saveStyle(player.getUniqueId(), "gradient", toHex(from), toHex(to));
         applyToPlayer(player);
         return true;
@@ -73,6 +118,7 @@ public final class NickColorManager {
 
     public void reset(Player player) {
         styles.remove(player.getUniqueId());
+        invalidate(player.getUniqueId());
         config.set(player.getUniqueId().toString(), null);
         try {
             config.save(file);
@@ -86,6 +132,10 @@ public final class NickColorManager {
         Component name = getNameComponent(player);
         player.displayName(name);
         player.playerListName(name);
+        if (plugin.getTabManager() != null) {
+            // Our own list name was just overwritten; put the tab format back right away.
+            plugin.getTabManager().refreshPlayer(player);
+        }
     }
 
     public void applyToOnlinePlayers() {
@@ -188,7 +238,10 @@ public final class NickColorManager {
         return String.format("#%06X", value & 0xFFFFFF);
     }
 
-    private interface NameStyle {
+    private record CachedName(Component source, Component base, Component clickable) {
+    }
+
+    interface NameStyle {
         Component apply(String name);
     }
 
@@ -205,11 +258,11 @@ public final class NickColorManager {
         }
     }
 
-    private static final class GradientStyle implements NameStyle {
+    static final class GradientStyle implements NameStyle {
         private final TextColor from;
         private final TextColor to;
 
-        private GradientStyle(TextColor from, TextColor to) {
+        GradientStyle(TextColor from, TextColor to) {
             this.from = from;
             this.to = to;
         }
@@ -220,7 +273,7 @@ public final class NickColorManager {
                 return Component.empty();
             }
             int len = name.length();
-            Component result = Component.empty();
+            TextComponent.Builder result = Component.text();
             for (int i = 0; i < len; i++) {
                 float t = len == 1 ? 0f : (float) i / (len - 1);
                 TextColor color = TextColor.color(
@@ -228,9 +281,9 @@ public final class NickColorManager {
                     lerp(from.green(), to.green(), t),
                     lerp(from.blue(), to.blue(), t)
                 );
-                result = result.append(Component.text(String.valueOf(name.charAt(i))).color(color));
+                result.append(Component.text(String.valueOf(name.charAt(i)), color));
             }
-            return result;
+            return result.build();
         }
 
         private int lerp(int a, int b, float t) {
@@ -1,15 +1,27 @@
 package com.hakune.chat;
 
 import java.lang.reflect.Method;
-
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.PluginManager;
 
-public final class PlaceholderHook {
+public final class PlaceholderHook implements Listener {
     private final boolean available;
     private final Method setPlaceholdersMethod;
+    private final Map<UUID, Map<String, CachedValue>> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int cacheTtlTicks;
 
-    public PlaceholderHook(PluginManager pluginManager) {
+    public PlaceholderHook(PluginManager pluginManager, int cacheTtlTicks) {
         Method method = null;
         boolean ok = false;
         if (pluginManager.isPluginEnabled("PlaceholderAPI")) {
@@ -23,12 +35,124 @@ public final class PlaceholderHook {
         }
         this.available = ok;
         this.setPlaceholdersMethod = method;
+        this.cacheTtlTicks = Math.max(0, cacheTtlTicks);
+    }
+
+    public void configure(int cacheTtlTicks) {
+        this.cacheTtlTicks = Math.max(0, cacheTtlTicks);
+        cache.clear();
     }
 
     public String apply(Player player, String text) {
         if (!available || text == null) {
             return text;
         }
+        int start = text.indexOf('%');
+        if (start < 0) {
+            return text;
+        }
+        StringBuilder result = null;
+        int copied = 0;
+        while (start >= 0) {
+            int end = text.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+            // A stray percent sign ("100% of %player_name%") is text: the closing '%' may open
+            // the real placeholder, so scanning resumes there.
+            if (!isToken(text, start, end)) {
+                start = end;
+                continue;
+            }
+            String token = text.substring(start, end + 1);
+            String value = resolve(player, token);
+            if (value.equals(token)) {
+                start = end;
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(text.length() + 16);
+            }
+            result.append(text, copied, start).append(value);
+            copied = end + 1;
+            start = text.indexOf('%', end + 1);
+        }
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, copied, text.length()).toString();
+    }
+
+    // Player-typed text (chat, PMs): resolved in one call and never cached, so arbitrary
+    // %tokens% in messages cannot grow the per-player cache.
+    public String applyToMessage(Player player, String text) {
+        if (!available || text == null || text.indexOf('%') < 0) {
+            return text;
+        }
+        return invoke(player, text);
+    }
+
+    // %identifier_params%: non-empty and without whitespace, like PlaceholderAPI's own pattern.
+    static boolean isToken(String text, int start, int end) {
+        if (end <= start + 1) {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String resolve(Player player, String token) {
+        if (!available || token == null) {
+            return token;
+        }
+        int ttl = cacheTtlTicks;
+        if (player == null || ttl <= 0) {
+            misses.increment();
+            return invoke(player, token);
+        }
+        int tick = Bukkit.getCurrentTick();
+        Map<String, CachedValue> values = cache.computeIfAbsent(player.getUniqueId(), ignored -> new ConcurrentHashMap<>());
+        CachedValue cached = values.get(token);
+        if (cached != null && tick - cached.tick < ttl) {
+            hits.increment();
+            return cached.value;
+        }
+        misses.increment();
+        String value = invoke(player, token);
+        values.put(token, new CachedValue(value, tick));
+        return value;
+    }
+
+    public void invalidate(UUID playerId) {
+        cache.remove(playerId);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getCachedCount() {
+        int total = 0;
+        for (Map<String, CachedValue> values : cache.values()) {
+            total += values.size();
+        }
+        return total;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    private String invoke(Player player, String text) {
         try {
             Object result = setPlaceholdersMethod.invoke(null, player, text);
             return result instanceof String ? (String) result : text;
@@ -36,4 +160,7 @@ public final class PlaceholderHook {
             return text;
         }
     }
+
+    private record CachedValue(String value, int tick) {
+    }
 }
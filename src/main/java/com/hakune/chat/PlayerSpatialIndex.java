@@ -0,0 +1,223 @@
+package com.hakune.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+public final class PlayerSpatialIndex implements Listener {
+    private static final int CELL_SHIFT = 4;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    private static final long RESYNC_INTERVAL_TICKS = 100L;
+
+    private final HakuneChatPlugin plugin;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<Long, Set<Entry>>> worlds = new ConcurrentHashMap<>();
+    private BukkitTask resyncTask;
+
+    public PlayerSpatialIndex(HakuneChatPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        stop();
+        trackOnlinePlayers();
+        // Server-side movement (pistons, knockback without client packets) fires no move event.
+        resyncTask = Bukkit.getScheduler().runTaskTimer(plugin, this::trackOnlinePlayers, RESYNC_INTERVAL_TICKS, RESYNC_INTERVAL_TICKS);
+    }
+
+    public void stop() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+    }
+
+    public void trackOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player, player.getLocation());
+        }
+    }
+
+    public List<Player> nearby(Player center, double radius) {
+        Entry origin = entries.get(center.getUniqueId());
+        if (origin == null) {
+            update(center, center.getLocation());
+            origin = entries.get(center.getUniqueId());
+        }
+        List<Player> result = new ArrayList<>();
+        if (origin == null) {
+            return result;
+        }
+        Map<Long, Set<Entry>> cells = worlds.get(origin.worldId);
+        if (cells == null) {
+            return result;
+        }
+        double radiusSq = radius * radius;
+        int reach = (int) Math.ceil(radius / CELL_SIZE);
+        long span = (2L * reach + 1L) * (2L * reach + 1L);
+        if (span >= cells.size()) {
+            // Fewer occupied cells than the query covers: walking them directly is cheaper.
+            for (Set<Entry> cell : cells.values()) {
+                collect(cell, origin, radiusSq, result);
+            }
+            return result;
+        }
+        int cellX = origin.cellX;
+        int cellZ = origin.cellZ;
+        for (int dx = -reach; dx <= reach; dx++) {
+            for (int dz = -reach; dz <= reach; dz++) {
+                Set<Entry> cell = cells.get(key(cellX + dx, cellZ + dz));
+                if (cell != null) {
+                    collect(cell, origin, radiusSq, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        update(player, player.getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                update(player, event.getTo());
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        update(player, player.getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    private void update(Player player, Location location) {
+        if (location == null || location.getWorld() == null) {
+            return;
+        }
+        UUID worldId = location.getWorld().getUID();
+        int cellX = location.getBlockX() >> CELL_SHIFT;
+        int cellZ = location.getBlockZ() >> CELL_SHIFT;
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null) {
+            entry = new Entry(player);
+            entries.put(player.getUniqueId(), entry);
+        } else if (entry.worldId.equals(worldId) && entry.cellX == cellX && entry.cellZ == cellZ) {
+            entry.setPosition(location);
+            return;
+        } else {
+            unlink(entry);
+        }
+        entry.worldId = worldId;
+        entry.cellX = cellX;
+        entry.cellZ = cellZ;
+        entry.setPosition(location);
+        worlds.computeIfAbsent(worldId, ignored -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key(cellX, cellZ), ignored -> ConcurrentHashMap.newKeySet())
+            .add(entry);
+    }
+
+    private void remove(UUID playerId) {
+        Entry entry = entries.remove(playerId);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.worldId == null) {
+            return;
+        }
+        Map<Long, Set<Entry>> cells = worlds.get(entry.worldId);
+        if (cells == null) {
+            return;
+        }
+        long key = key(entry.cellX, entry.cellZ);
+        Set<Entry> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        cell.remove(entry);
+        if (cell.isEmpty()) {
+            cells.remove(key, cell);
+        }
+    }
+
+    private static void collect(Set<Entry> cell, Entry origin, double radiusSq, List<Player> result) {
+        for (Entry entry : cell) {
+            double dx = entry.x - origin.x;
+            double dy = entry.y - origin.y;
+            double dz = entry.z - origin.z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq && entry.player.isOnline()) {
+                result.add(entry.player);
+            }
+        }
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry {
+        private final Player player;
+        private volatile UUID worldId;
+        private volatile int cellX;
+        private volatile int cellZ;
+        private volatile double x;
+        private volatile double y;
+        private volatile double z;
+
+        private Entry(Player player) {
+            this.player = player;
+        }
+
+        private void setPosition(Location location) {
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+        }
+    }
+}
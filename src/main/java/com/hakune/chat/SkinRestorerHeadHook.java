@@ -1,6 +1,8 @@
 package com.hakune.chat;
 
 import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +23,8 @@ import org.bukkit.scheduler.BukkitTask;
 public final class SkinRestorerHeadHook implements Listener {
     private final HakuneChatPlugin plugin;
     private final Map<UUID, SkinData> cache = new ConcurrentHashMap<>();
+    private final HeadCache heads = new HeadCache();
+    private volatile Map<ViewerClass, HeadForm> headForms = forms(HeadForm.FULL, HeadForm.ID);
     private BukkitTask refreshTask;
     private volatile UpdateMode updateMode = UpdateMode.INTERVAL;
     private volatile java.util.List<String> commandTriggers = java.util.List.of();
@@ -90,6 +94,23 @@ public final class SkinRestorerHeadHook implements Listener {
         }
     }
 
+    // Forms per viewer class: Bedrock viewers get their own setting, the console always gets id.
+    public void setHeadForms(String javaForm, String bedrockForm) {
+        this.headForms = forms(HeadForm.from(javaForm), HeadForm.from(bedrockForm));
+    }
+
+    public HeadForm getHeadForm(ViewerClass viewerClass) {
+        return headForms.get(viewerClass);
+    }
+
+    private static Map<ViewerClass, HeadForm> forms(HeadForm java, HeadForm bedrock) {
+        Map<ViewerClass, HeadForm> forms = new EnumMap<>(ViewerClass.class);
+        forms.put(ViewerClass.JAVA, java);
+        forms.put(ViewerClass.BEDROCK, bedrock);
+        forms.put(ViewerClass.CONSOLE, HeadForm.ID);
+        return forms;
+    }
+
     private void startInterval(int refreshSeconds) {
         if (!available) {
             return;
@@ -142,10 +163,11 @@ public final class SkinRestorerHeadHook implements Listener {
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> warmup(player), 20L);
     }
 
-    public Component getHeadComponent(Player player) {
+    public Component getHeadComponent(Player player, ViewerClass viewerClass) {
         if (!available) {
             return Component.empty();
         }
+        HeadForm form = getHeadForm(viewerClass);
 
         if (plugin.getBedrockDetector().isBedrock(player.getUniqueId())) {
             BedrockSkinBridge bridge = plugin.getBedrockSkinBridge();
@@ -154,21 +176,16 @@ public final class SkinRestorerHeadHook implements Listener {
                 if (settings != null && settings.isEnabled() && settings.isUseForHeads()) {
                     BedrockSkinBridge.SkinPropertyData data = bridge.getSkinProperty(player.getUniqueId());
                     if (data != null && data.getValue() != null && !data.getValue().isBlank()) {
-                        return bridge.buildHeadComponent(player);
+                        return bridge.buildHeadComponent(player, form);
                     }
                 }
             }
         }
 
         SkinData skinData = cache.get(player.getUniqueId());
-        if (skinData == null || skinData.value == null || skinData.value.isBlank()) {
-            return Component.object(ObjectContents.playerHead(player.getUniqueId()));
-        }
-
-        PlayerHeadObjectContents headContents = ObjectContents.playerHead()
-            .profileProperty(PlayerHeadObjectContents.property("textures", skinData.value, skinData.signature))
-            .build();
-        return Component.object(headContents);
+        return skinData == null
+            ? heads.get(player.getUniqueId(), null, null, null, form)
+            : heads.get(player.getUniqueId(), skinData, skinData.value, skinData.signature, form);
     }
 
     @EventHandler
@@ -179,6 +196,7 @@ public final class SkinRestorerHeadHook implements Listener {
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         cache.remove(event.getPlayer().getUniqueId());
+        heads.remove(event.getPlayer().getUniqueId());
     }
 
     private void warmup(Player player) {
@@ -194,7 +212,11 @@ public final class SkinRestorerHeadHook implements Listener {
                 cache.remove(uuid);
                 return;
             }
-            cache.put(uuid, data);
+            // Keep the existing instance when the skin is unchanged so the cached head stays valid.
+            SkinData existing = cache.get(uuid);
+            if (existing == null || !existing.sameSkin(data)) {
+                cache.put(uuid, data);
+            }
         });
     }
 
@@ -229,6 +251,70 @@ public final class SkinRestorerHeadHook implements Listener {
             this.value = value;
             this.signature = signature;
         }
+
+        private boolean sameSkin(SkinData other) {
+            return java.util.Objects.equals(value, other.value) && java.util.Objects.equals(signature, other.signature);
+        }
+    }
+
+    // Heads per form and player, built for one skin data instance and rebuilt only when it changes.
+    static final class HeadCache {
+        private final Map<HeadForm, Map<UUID, CachedHead>> heads = new EnumMap<>(HeadForm.class);
+
+        HeadCache() {
+            for (HeadForm form : HeadForm.values()) {
+                heads.put(form, new ConcurrentHashMap<>());
+            }
+        }
+
+        Component get(UUID uuid, Object source, String value, String signature, HeadForm form) {
+            Map<UUID, CachedHead> byPlayer = heads.get(form);
+            CachedHead cached = byPlayer.get(uuid);
+            if (cached != null && cached.source() == source) {
+                return cached.component();
+            }
+            Component component = form.build(uuid, value, signature);
+            byPlayer.put(uuid, new CachedHead(source, component));
+            return component;
+        }
+
+        void remove(UUID uuid) {
+            for (Map<UUID, CachedHead> byPlayer : heads.values()) {
+                byPlayer.remove(uuid);
+            }
+        }
+    }
+
+    private record CachedHead(Object source, Component component) {
+    }
+
+    // full: textures value + signature, unsigned: textures value only, id: player id resolved by the client.
+    public enum HeadForm {
+        FULL,
+        UNSIGNED,
+        ID;
+
+        static HeadForm from(String value) {
+            if (value == null) {
+                return FULL;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "unsigned" -> UNSIGNED;
+                case "id" -> ID;
+                default -> FULL;
+            };
+        }
+
+        Component build(UUID uuid, String value, String signature) {
+            if (this == ID || value == null || value.isBlank()) {
+                return Component.object(ObjectContents.playerHead(uuid));
+            }
+            String sig = this == FULL ? signature : null;
+            PlayerHeadObjectContents headContents = ObjectContents.playerHead()
+                .profileProperty(PlayerHeadObjectContents.property("textures", value, sig))
+                .build();
+            return Component.object(headContents);
+        }
     }
 
     private enum UpdateMode {
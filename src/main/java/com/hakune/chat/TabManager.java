@@ -1,17 +1,23 @@
 package com.hakune.chat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
 import org.bukkit.scheduler.BukkitTask;
 
 public final class TabManager {
@@ -19,20 +25,45 @@ public final class TabManager {
         .character('&')
         .hexColors()
         .build();
-    private static final LegacyComponentSerializer SECTION = LegacyComponentSerializer.legacySection();
-    private static final String NAME_TAG_TEAM_PREFIX = "hcnt";
 
     private final HakuneChatPlugin plugin;
     private TabSettings settings;
+    private ChatTemplate headerTemplate;
+    private ChatTemplate footerTemplate;
+    private ChatTemplate playerTemplate;
+    private List<SortRule> sortRules;
     private BukkitTask task;
+    // Last values sent, tied to the Player instance so a relog always gets a fresh send.
+    private final Map<UUID, SentHeaderFooter> sentHeaderFooter = new ConcurrentHashMap<>();
+    private final Map<UUID, SentName> sentNames = new ConcurrentHashMap<>();
+    private final LongAdder sentUpdates = new LongAdder();
+    private final LongAdder skippedUpdates = new LongAdder();
+    private final NameTagTeams nameTagTeams = new NameTagTeams();
+    // Players still due in the current refresh cycle, in sorted order.
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private int cycleTicks;
+    private int cycleTick;
+    private final LongAdder deferredTicks = new LongAdder();
+    // Sort values per player; the key is rebuilt only when a resolved value changes.
+    private final Map<UUID, SortEntry> sortEntries = new HashMap<>();
+    private final Map<UUID, Integer> sentListOrder = new HashMap<>();
+    private boolean orderDirty;
+    // Gap left between list order values so a join or move fits between its neighbours.
+    private static final long LIST_ORDER_SPACING = 1L << 16;
 
     public TabManager(HakuneChatPlugin plugin, TabSettings settings) {
         this.plugin = plugin;
-        this.settings = settings;
+        updateSettings(settings);
     }
 
     public void updateSettings(TabSettings settings) {
         this.settings = settings;
+        this.headerTemplate = ChatTemplate.compile(joinLines(settings.getHeader()));
+        this.footerTemplate = ChatTemplate.compile(joinLines(settings.getFooter()));
+        this.playerTemplate = ChatTemplate.compile(normalizePlayerTemplate(settings.getPlayerFormat()));
+        this.sortRules = parseRules(settings.getSortingTypes());
+        sortEntries.clear();
+        orderDirty = true;
     }
 
     public void start() {
@@ -40,8 +71,10 @@ public final class TabManager {
         if (!settings.isEnabled()) {
             return;
         }
-        int interval = Math.max(1, settings.getUpdateIntervalSeconds());
-        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, interval * 20L);
+        cycleTicks = Math.max(1, settings.getUpdateIntervalSeconds()) * 20;
+        cycleTick = 0;
+        pending.clear();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
     }
 
     public void stop() {
@@ -51,53 +84,158 @@ public final class TabManager {
         }
     }
 
+    // Runs every tick and refreshes a slice of the players, so each player is still
+    // refreshed once per interval but the work is spread instead of landing in one tick.
     private void tick() {
         if (!settings.isEnabled()) {
             return;
         }
+        if (cycleTick == 0) {
+            startCycle();
+        }
+        int ticksLeft = cycleTicks - cycleTick;
+        cycleTick = (cycleTick + 1) % cycleTicks;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Whatever is left is spread over the remaining ticks, which also catches up deferred work.
+        int quota = (pending.size() + ticksLeft - 1) / ticksLeft;
+        long budgetNanos = (long) (settings.getTickBudgetMillis() * 1_000_000L);
+        long started = System.nanoTime();
+        List<Scoreboard> boards = nameTagTeams.viewerBoards();
+        Iterator<UUID> iterator = pending.iterator();
+        int processed = 0;
+        while (iterator.hasNext() && processed < quota) {
+            if (budgetNanos > 0 && processed > 0 && System.nanoTime() - started > budgetNanos) {
+                deferredTicks.increment();
+                break;
+            }
+            Player player = Bukkit.getPlayer(iterator.next());
+            iterator.remove();
+            if (player == null) {
+                continue;
+            }
+            refresh(player, boards);
+            processed++;
+        }
+        applyListOrder();
+    }
+
+    private void startCycle() {
+        // Players deferred from the last cycle keep their place at the front.
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            pending.add(player.getUniqueId());
+        }
+        sentHeaderFooter.keySet().removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+        sentNames.keySet().removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+    }
+
+    private void refresh(Player player, List<Scoreboard> boards) {
+        updateHeaderFooter(player);
+        updatePlayerName(player);
+        updateNameTag(player, boards);
+        updateSortEntry(player);
+    }
+
+    // Immediate refresh outside the shard schedule (join, nickcolor change).
+    public void refreshPlayer(Player player) {
+        if (!settings.isEnabled() || player == null || !player.isOnline()) {
+            return;
+        }
+        sentNames.remove(player.getUniqueId());
+        refresh(player, nameTagTeams.viewerBoards());
+        applyListOrder();
+    }
+
+    public long getDeferredTicks() {
+        return deferredTicks.sum();
+    }
+
+    public long getSentUpdates() {
+        return sentUpdates.sum();
+    }
+
+    public long getSkippedUpdates() {
+        return skippedUpdates.sum();
+    }
 
-        List<Player> players = new ArrayList<>(Bukkit.getOnlinePlayers());
-        Comparator<Player> comparator = buildComparator(players);
-        players.sort(comparator);
+    public long getNameTagTeamUpdates() {
+        return nameTagTeams.getTeamUpdates();
+    }
 
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            updateHeaderFooter(viewer);
+    public void handleJoin(Player player) {
+        if (!settings.isEnabled()) {
+            return;
         }
+        nameTagTeams.addViewer(player);
+        refreshPlayer(player);
+    }
 
-        for (Player player : players) {
-            updatePlayerName(player);
-            updateNameTag(player);
+    public void handleQuit(Player player) {
+        pending.remove(player.getUniqueId());
+        sentListOrder.remove(player.getUniqueId());
+        if (sortEntries.remove(player.getUniqueId()) != null) {
+            orderDirty = true;
         }
+        nameTagTeams.remove(player, nameTagTeams.viewerBoards());
     }
 
     private void updateHeaderFooter(Player viewer) {
-        String header = joinLines(resolveList(viewer, settings.getHeader(), true));
-        String footer = joinLines(resolveList(viewer, settings.getFooter(), true));
-        Component headerComponent = LEGACY.deserialize(normalizeHex(header));
-        Component footerComponent = LEGACY.deserialize(normalizeHex(footer));
+        Component voice = headerTemplate.uses(ChatTemplate.Slot.VOICE) || footerTemplate.uses(ChatTemplate.Slot.VOICE)
+            ? plugin.getVoiceDetector().getVoiceComponent(viewer)
+            : null;
+        ChatTemplate.Values values = new ChatTemplate.Values(
+            viewer,
+            viewer.getWorld().getName(),
+            Component.text(viewer.getName()),
+            null,
+            null,
+            voice
+        );
+        Component headerComponent = headerTemplate.render(plugin.getPlaceholderHook(), values);
+        Component footerComponent = footerTemplate.render(plugin.getPlaceholderHook(), values);
+        SentHeaderFooter previous = sentHeaderFooter.get(viewer.getUniqueId());
+        if (previous != null && previous.matches(viewer, headerComponent, footerComponent)) {
+            skippedUpdates.increment();
+            return;
+        }
         viewer.sendPlayerListHeaderAndFooter(headerComponent, footerComponent);
+        sentHeaderFooter.put(viewer.getUniqueId(), new SentHeaderFooter(viewer, headerComponent, footerComponent));
+        sentUpdates.increment();
     }
 
     private void updatePlayerName(Player player) {
-        String format = resolvePlaceholders(player, normalizePlayerTemplate(settings.getPlayerFormat()), false);
-        format = normalizeHex(format);
-        Component headComponent = Component.empty();
-        if (plugin.getSettings().isSkinRestorerHeads() && plugin.getSkinRestorerHeadHook() != null) {
-            headComponent = plugin.getSkinRestorerHeadHook().getHeadComponent(player);
-        }
-        Component finalComponent = buildComponentWithTokens(
-            format,
+        // The list name is one component for every viewer; only Java clients draw the head.
+        Component headComponent = playerTemplate.uses(ChatTemplate.Slot.HEAD)
+            ? plugin.getHeadComponent(player, ViewerClass.JAVA)
+            : Component.empty();
+        Component voice = playerTemplate.uses(ChatTemplate.Slot.VOICE)
+            ? plugin.getVoiceDetector().getVoiceComponent(player)
+            : null;
+        Component finalComponent = playerTemplate.render(plugin.getPlaceholderHook(), new ChatTemplate.Values(
+            player,
+            player.getWorld().getName(),
+            plugin.getStyledNameComponent(player),
+            null,
             headComponent,
-            plugin.getStyledNameComponent(player)
-        );
+            voice
+        ));
+        SentName previous = sentNames.get(player.getUniqueId());
+        if (previous != null && previous.matches(player, finalComponent)) {
+            skippedUpdates.increment();
+            return;
+        }
         player.playerListName(finalComponent);
+        sentNames.put(player.getUniqueId(), new SentName(player, finalComponent));
+        sentUpdates.increment();
     }
 
-    private void updateNameTag(Player player) {
+    private void updateNameTag(Player player, List<Scoreboard> boards) {
         if (!settings.isNameTagEnabled()) {
             player.customName(null);
             player.setCustomNameVisible(false);
-            clearNameTagTeams(player);
+            nameTagTeams.remove(player, boards);
             return;
         }
         String format = resolvePlaceholders(player, normalizePlayerTemplate(settings.getNameTagFormat()), false);
@@ -108,49 +246,158 @@ public final class TabManager {
         Component component = buildComponentWithTokens(format, null, Component.text(player.getName()));
         player.customName(component);
         player.setCustomNameVisible(true);
-        applyScoreboardNameTag(player, format);
+        nameTagTeams.apply(player, format, boards);
     }
 
     public void refreshNameTag(Player player) {
         if (player == null || !player.isOnline()) {
             return;
         }
-        updateNameTag(player);
+        updateNameTag(player, nameTagTeams.viewerBoards());
     }
 
-    private Comparator<Player> buildComparator(List<Player> players) {
-        List<SortRule> rules = parseRules(settings.getSortingTypes());
-        Map<Player, SortKey> cache = new ConcurrentHashMap<>();
-        for (Player player : players) {
-            cache.put(player, buildKey(player, rules));
+    private void updateSortEntry(Player player) {
+        if (sortRules.isEmpty()) {
+            return;
         }
-        return (a, b) -> {
-            SortKey ka = cache.get(a);
-            SortKey kb = cache.get(b);
-            int cmp = ka.compareTo(kb);
-            if (cmp != 0) {
-                return cmp;
-            }
-            return a.getName().compareToIgnoreCase(b.getName());
-        };
+        List<String> values = new ArrayList<>(sortRules.size());
+        for (SortRule rule : sortRules) {
+            String placeholder = rule.type == SortType.GROUPS ? settings.getGroupPlaceholder() : rule.placeholder;
+            values.add(resolvePlaceholders(player, placeholder, true).toLowerCase(Locale.ROOT));
+        }
+        SortEntry previous = sortEntries.get(player.getUniqueId());
+        if (previous != null && previous.player() == player && previous.values().equals(values)) {
+            return;
+        }
+        sortEntries.put(player.getUniqueId(), new SortEntry(player, values, buildKey(values)));
+        orderDirty = true;
     }
 
-    private SortKey buildKey(Player player, List<SortRule> rules) {
-        List<Comparable<?>> parts = new ArrayList<>();
-        String groupPlaceholder = settings.getGroupPlaceholder();
-        for (SortRule rule : rules) {
+    private SortKey buildKey(List<String> values) {
+        List<Comparable<?>> parts = new ArrayList<>(values.size());
+        for (int i = 0; i < sortRules.size(); i++) {
+            SortRule rule = sortRules.get(i);
+            String value = values.get(i);
             if (rule.type == SortType.GROUPS) {
-                String group = resolvePlaceholders(player, groupPlaceholder, true).toLowerCase(Locale.ROOT);
-                int index = rule.groupOrder.indexOf(group);
+                int index = rule.groupOrder.indexOf(value);
                 parts.add(index < 0 ? Integer.MAX_VALUE : index);
-            } else if (rule.type == SortType.PLACEHOLDER_A_TO_Z) {
-                String value = resolvePlaceholders(player, rule.placeholder, true).toLowerCase(Locale.ROOT);
+            } else {
                 parts.add(value);
             }
         }
         return new SortKey(parts);
     }
 
+    // Client tab order: higher list order is shown first. Entries whose sent values are
+    // already in the right relative order keep them; joined or moved entries get a value
+    // between their neighbours, so only they are re-sent.
+    private void applyListOrder() {
+        if (!orderDirty) {
+            return;
+        }
+        orderDirty = false;
+        List<SortEntry> entries = new ArrayList<>(sortEntries.values());
+        entries.sort(Comparator.comparing(SortEntry::key)
+            .thenComparing(entry -> entry.player().getName(), String.CASE_INSENSITIVE_ORDER));
+        long[] orders = new long[entries.size()];
+        boolean[] keep = keptOrders(entries, orders);
+        if (!fillOrderGaps(orders, keep)) {
+            relabelOrders(orders);
+            Arrays.fill(keep, false);
+        }
+        for (int i = 0; i < orders.length; i++) {
+            if (keep[i]) {
+                continue;
+            }
+            SortEntry entry = entries.get(i);
+            int order = (int) orders[i];
+            Integer previous = sentListOrder.put(entry.player().getUniqueId(), order);
+            if (previous == null || previous != order) {
+                entry.player().setPlayerListOrder(order);
+                sentUpdates.increment();
+            }
+        }
+    }
+
+    // Longest run of sorted entries whose sent values already strictly descend.
+    private boolean[] keptOrders(List<SortEntry> entries, long[] orders) {
+        int size = entries.size();
+        boolean[] keep = new boolean[size];
+        int[] tails = new int[size];
+        int[] parent = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            Integer sent = sentListOrder.get(entries.get(i).player().getUniqueId());
+            parent[i] = -1;
+            if (sent == null) {
+                continue;
+            }
+            orders[i] = sent;
+            int lo = 0;
+            int hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (orders[tails[mid]] > sent) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            parent[i] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = i;
+            if (lo == length) {
+                length++;
+            }
+        }
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = parent[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+
+    // Spreads every run of unkept entries between the kept values around it; false when a
+    // run does not fit.
+    private static boolean fillOrderGaps(long[] orders, boolean[] keep) {
+        int i = 0;
+        while (i < orders.length) {
+            if (keep[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < orders.length && !keep[i]) {
+                i++;
+            }
+            int count = i - start;
+            long span = (count + 1) * LIST_ORDER_SPACING;
+            long upper;
+            if (start > 0) {
+                upper = orders[start - 1];
+            } else if (i < orders.length) {
+                upper = Math.min(Integer.MAX_VALUE, orders[i] + span);
+            } else {
+                upper = Math.min(Integer.MAX_VALUE, span / 2);
+            }
+            long lower = i < orders.length ? orders[i] : Math.max(Integer.MIN_VALUE, upper - span);
+            long step = (upper - lower) / (count + 1);
+            if (step < 1) {
+                return false;
+            }
+            for (int k = 0; k < count; k++) {
+                orders[start + k] = upper - step * (k + 1);
+            }
+        }
+        return true;
+    }
+
+    private static void relabelOrders(long[] orders) {
+        long step = Math.min(LIST_ORDER_SPACING, (1L << 32) / (orders.length + 1));
+        long top = step * orders.length / 2;
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = top - step * i;
+        }
+    }
+
     private List<SortRule> parseRules(List<String> raw) {
         List<SortRule> rules = new ArrayList<>();
         if (raw == null || raw.isEmpty()) {
@@ -198,18 +445,7 @@ public final class TabManager {
             .replace("{voice}", plugin.getVoiceDetector().getVoiceIndicator(player));
     }
 
-    private List<String> resolveList(Player player, List<String> lines, boolean replacePlayer) {
-        if (lines == null || lines.isEmpty()) {
-            return List.of("");
-        }
-        List<String> result = new ArrayList<>();
-        for (String line : lines) {
-            result.add(resolvePlaceholders(player, line, replacePlayer));
-        }
-        return result;
-    }
-
-    private String joinLines(List<String> lines) {
+    private static String joinLines(List<String> lines) {
         if (lines == null || lines.isEmpty()) {
             return "";
         }
@@ -225,110 +461,14 @@ public final class TabManager {
             .replace("%player%", "{player}");
     }
 
-    private void applyScoreboardNameTag(Player subject, String format) {
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            Scoreboard board = viewer.getScoreboard();
-            if (board == null) {
-                continue;
-            }
-            Team team = board.getTeam(nameTagTeamName(subject));
-            if (team == null) {
-                team = board.registerNewTeam(nameTagTeamName(subject));
-            }
-            String[] parts = splitByPlayerToken(format);
-            String prefix = toSectionLegacy(parts[0]);
-            String suffix = toSectionLegacy(parts[1]);
-            setTeamText(team, prefix, suffix);
-            if (!team.hasEntry(subject.getName())) {
-                team.addEntry(subject.getName());
-            }
-        }
-    }
-
-    private void clearNameTagTeams(Player subject) {
-        String teamName = nameTagTeamName(subject);
-        for (Player viewer : Bukkit.getOnlinePlayers()) {
-            Scoreboard board = viewer.getScoreboard();
-            if (board == null) {
-                continue;
-            }
-            Team team = board.getTeam(teamName);
-            if (team == null) {
-                continue;
-            }
-            team.removeEntry(subject.getName());
-            if (team.getEntries().isEmpty()) {
-                team.unregister();
-            }
-        }
-    }
-
-    private static String[] splitByPlayerToken(String format) {
-        if (format == null || format.isEmpty()) {
-            return new String[] {"", ""};
-        }
-        int idx = format.indexOf("{player}");
-        if (idx < 0) {
-            return new String[] {format, ""};
-        }
-        String prefix = format.substring(0, idx);
-        String suffix = format.substring(idx + "{player}".length());
-        return new String[] {prefix, suffix};
-    }
-
-    private static String toSectionLegacy(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
-        }
-        return SECTION.serialize(LEGACY.deserialize(text));
-    }
-
-    private static void setTeamText(Team team, String prefix, String suffix) {
-        try {
-            team.setPrefix(prefix);
-        } catch (IllegalArgumentException ex) {
-            team.setPrefix(prefix.length() > 64 ? prefix.substring(0, 64) : "");
-        }
-        try {
-            team.setSuffix(suffix);
-        } catch (IllegalArgumentException ex) {
-            team.setSuffix(suffix.length() > 64 ? suffix.substring(0, 64) : "");
-        }
-    }
-
-    private static String nameTagTeamName(Player player) {
-        String compact = player.getUniqueId().toString().replace("-", "");
-        return NAME_TAG_TEAM_PREFIX + compact.substring(0, 12);
-    }
-
-    private static String normalizeHex(String text) {
+    static String normalizeHex(String text) {
         if (text == null || text.isEmpty()) {
             return text;
         }
         return text.replaceAll("(?i)(?<!&)#([0-9a-f]{6})", "&#$1");
     }
 
-    private static Component buildComponentWithHead(String formatted, Component headComponent) {
-        if (formatted == null) {
-            return Component.empty();
-        }
-        if (!formatted.contains("{head}")) {
-            return LEGACY.deserialize(formatted);
-        }
-        String[] parts = formatted.split("\\{head\\}", -1);
-        Component result = Component.empty();
-        for (int i = 0; i < parts.length; i++) {
-            if (!parts[i].isEmpty()) {
-                result = result.append(LEGACY.deserialize(parts[i]));
-            }
-            if (i < parts.length - 1 && headComponent != null) {
-                result = result.append(headComponent);
-            }
-        }
-        return result;
-    }
-
-    private static Component buildComponentWithTokens(
+    static Component buildComponentWithTokens(
         String formatted,
         Component headComponent,
         Component playerComponent
@@ -367,6 +507,21 @@ public final class TabManager {
         return result;
     }
 
+    private record SentHeaderFooter(Player viewer, Component header, Component footer) {
+        private boolean matches(Player currentViewer, Component currentHeader, Component currentFooter) {
+            return viewer == currentViewer && header.equals(currentHeader) && footer.equals(currentFooter);
+        }
+    }
+
+    private record SortEntry(Player player, List<String> values, SortKey key) {
+    }
+
+    private record SentName(Player subject, Component name) {
+        private boolean matches(Player currentSubject, Component currentName) {
+            return subject == currentSubject && name.equals(currentName);
+        }
+    }
+
     private enum SortType {
         GROUPS,
         PLACEHOLDER_A_TO_Z
@@ -5,6 +5,7 @@ import java.util.List;
 public final class TabSettings {
     private final boolean enabled;
     private final int updateIntervalSeconds;
+    private final double tickBudgetMillis;
     private final List<String> header;
     private final List<String> footer;
     private final String playerFormat;
@@ -16,6 +17,7 @@ public final class TabSettings {
     public TabSettings(
         boolean enabled,
         int updateIntervalSeconds,
+        double tickBudgetMillis,
         List<String> header,
         List<String> footer,
         String playerFormat,
@@ -26,6 +28,7 @@ public final class TabSettings {
     ) {
         this.enabled = enabled;
         this.updateIntervalSeconds = updateIntervalSeconds;
+        this.tickBudgetMillis = tickBudgetMillis;
         this.header = header;
         this.footer = footer;
         this.playerFormat = playerFormat;
@@ -43,6 +46,10 @@ public final class TabSettings {
         return updateIntervalSeconds;
     }
 
+    public double getTickBudgetMillis() {
+        return tickBudgetMillis;
+    }
+
     public List<String> getHeader() {
         return header;
     }
@@ -2,6 +2,7 @@ package com.hakune.chat;
 
 import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -12,9 +13,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 public final class TelegramBridge {
     private static final Gson GSON = new Gson();
@@ -22,8 +21,14 @@ public final class TelegramBridge {
     private final HakuneChatPlugin plugin;
     private final TelegramSettings settings;
     private final HttpClient client;
+    private static final int LONG_POLL_SECONDS = 25;
+    private static final long MAX_BACKOFF_MILLIS = 60_000L;
+
     private final AtomicLong lastUpdateId = new AtomicLong(0L);
-    private BukkitTask pollTask;
+    // Single consumer: the next getUpdates starts only after the previous one returned.
+    private volatile Thread pollThread;
+    private TelegramWebhookServer webhookServer;
+    private final TelegramOutbox outbox;
 
     public TelegramBridge(HakuneChatPlugin plugin, TelegramSettings settings) {
         this.plugin = plugin;
@@ -31,6 +36,14 @@ public final class TelegramBridge {
         this.client = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(10))
             .build();
+        this.lastUpdateId.set(plugin.getBridgeCursors().getTelegramUpdateId());
+        this.outbox = new TelegramOutbox(
+            settings.getQueueSize(),
+            settings.getBatchMillis(),
+            settings.getMessagesPerMinute(),
+            settings.getOverflowPolicy(),
+            this::sendMessage
+        );
     }
 
     public boolean isEnabled() {
@@ -45,14 +58,35 @@ public final class TelegramBridge {
         if (!isEnabled()) {
             return;
         }
-        int interval = Math.max(2, settings.getPollIntervalSeconds());
-        pollTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::pollUpdates, 20L, interval * 20L);
+        outbox.start();
+        if (settings.isWebhookMode()) {
+            startWebhook();
+            return;
+        }
+        Thread thread = new Thread(this::pollLoop, "HakuneChat-Telegram-Poll");
+        thread.setDaemon(true);
+        pollThread = thread;
+        thread.start();
     }
 
     public void stop() {
-        if (pollTask != null) {
-            pollTask.cancel();
-            pollTask = null;
+        outbox.stop();
+        if (webhookServer != null) {
+            webhookServer.stop();
+            webhookServer = null;
+        }
+        Thread thread = pollThread;
+        pollThread = null;
+        if (thread == null) {
+            return;
+        }
+        // Interrupting aborts the in-flight long poll; wait briefly so a reload never
+        // has two loops polling with the same offset.
+        thread.interrupt();
+        try {
+            thread.join(2000L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -69,47 +103,162 @@ public final class TelegramBridge {
             .replace("{world}", player.getWorld().getName())
             .replace("{message}", message);
 
-        sendMessage(formatted);
+        outbox.offer(formatted);
     }
 
-    private void pollUpdates() {
-        if (!isEnabled()) {
+    public TelegramOutbox getOutbox() {
+        return outbox;
+    }
+
+    private void startWebhook() {
+        String secret = settings.getWebhookSecret();
+        if (secret == null || secret.isBlank()) {
+            plugin.getLogger().warning("Telegram webhook mode needs webhook.secret-token; bridge is not receiving messages.");
             return;
         }
-        long offset = lastUpdateId.get() + 1;
-        String url = "https://api.telegram.org/bot" + settings.getToken()
-            + "/getUpdates?timeout=20&offset=" + offset;
+        TelegramWebhookServer server = new TelegramWebhookServer(
+            settings.getWebhookBind(),
+            settings.getWebhookPort(),
+            settings.getWebhookPath(),
+            secret,
+            this::handleWebhookUpdate
+        );
+        try {
+            server.start();
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to start Telegram webhook on port " + settings.getWebhookPort() + ": " + ex.getMessage());
+            return;
+        }
+        webhookServer = server;
+        String publicUrl = settings.getWebhookPublicUrl();
+        if (publicUrl != null && !publicUrl.isBlank()) {
+            registerWebhook(publicUrl, secret);
+        }
+    }
+
+    private void registerWebhook(String publicUrl, String secret) {
+        String url = "https://api.telegram.org/bot" + settings.getToken() + "/setWebhook";
+        String body = "url=" + encode(publicUrl)
+            + "&secret_token=" + encode(secret)
+            + "&allowed_updates=" + encode("[\"message\"]")
+            // One connection at a time keeps updates in order for the cursor check.
+            + "&max_connections=1";
 
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(30))
-            .GET()
+            .timeout(Duration.ofSeconds(15))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
             .build();
 
         client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .thenAccept(this::handleUpdates)
-            .exceptionally(ignored -> null);
+            .thenAccept(response -> {
+                if (response.statusCode() != 200) {
+                    plugin.getLogger().warning("Telegram setWebhook failed: " + response.body());
+                }
+            })
+            .exceptionally(ex -> {
+                plugin.getLogger().warning("Telegram setWebhook failed: " + ex.getMessage());
+                return null;
+            });
     }
 
-    private void handleUpdates(HttpResponse<String> response) {
-        if (response.statusCode() != 200) {
+    // Webhook requests carry a single Update; runs on the server's virtual threads.
+    private void handleWebhookUpdate(String body) {
+        Update update;
+        try {
+            update = GSON.fromJson(body, Update.class);
+        } catch (Exception ignored) {
             return;
         }
+        if (update != null) {
+            handleUpdates(List.of(update));
+        }
+    }
+
+    private void pollLoop() {
+        long initialBackoff = Math.max(1, settings.getPollIntervalSeconds()) * 1000L;
+        long backoff = initialBackoff;
+        while (pollThread == Thread.currentThread()) {
+            long retryAfter;
+            try {
+                retryAfter = pollUpdates();
+            } catch (InterruptedException ex) {
+                return;
+            } catch (Exception ex) {
+                retryAfter = -1L;
+            }
+            if (retryAfter == 0L) {
+                backoff = initialBackoff;
+                continue;
+            }
+            long delay = retryAfter > 0 ? retryAfter : backoff;
+            if (retryAfter < 0) {
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    // Returns 0 on success, the server's retry_after in millis, or -1 for a failed request.
+    private long pollUpdates() throws Exception {
+        long offset = lastUpdateId.get() + 1;
+        String url = "https://api.telegram.org/bot" + settings.getToken()
+            + "/getUpdates?timeout=" + LONG_POLL_SECONDS + "&offset=" + offset;
+
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(Duration.ofSeconds(LONG_POLL_SECONDS + 10))
+            .GET()
+            .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 409) {
+            // A webhook left over from webhook mode blocks getUpdates until it is removed.
+            deleteWebhook();
+            return -1L;
+        }
         TelegramResponse payload;
         try {
             payload = GSON.fromJson(response.body(), TelegramResponse.class);
         } catch (Exception ignored) {
-            return;
+            return -1L;
         }
-        if (payload == null || payload.result == null || payload.result.isEmpty()) {
-            return;
+        if (response.statusCode() == 429 && payload != null && payload.parameters != null && payload.parameters.retryAfter > 0) {
+            return payload.parameters.retryAfter * 1000L;
+        }
+        if (response.statusCode() != 200 || payload == null) {
+            return -1L;
         }
+        if (payload.result != null) {
+            handleUpdates(payload.result);
+        }
+        return 0L;
+    }
+
+    private void deleteWebhook() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create("https://api.telegram.org/bot" + settings.getToken() + "/deleteWebhook"))
+            .timeout(Duration.ofSeconds(15))
+            .GET()
+            .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
 
-        for (Update update : payload.result) {
-            if (update == null) {
+    // Shared by the poll loop and the webhook endpoint; synchronized so concurrent webhook
+    // requests advance the cursor in order and a redelivered update is dropped.
+    private synchronized void handleUpdates(List<Update> updates) {
+        for (Update update : updates) {
+            // Anything at or below the stored cursor was already delivered.
+            if (update == null || update.updateId <= lastUpdateId.get()) {
                 continue;
             }
-            lastUpdateId.updateAndGet(current -> Math.max(current, update.updateId));
+            lastUpdateId.set(update.updateId);
+            plugin.getBridgeCursors().setTelegramUpdateId(update.updateId);
             if (update.message == null || update.message.text == null) {
                 continue;
             }
@@ -134,7 +283,8 @@ public final class TelegramBridge {
         }
     }
 
-    private void sendMessage(String text) {
+    // Called from the outbox thread only; same result convention as pollUpdates.
+    private long sendMessage(String text) {
         String url = "https://api.telegram.org/bot" + settings.getToken() + "/sendMessage";
         String body = "chat_id=" + encode(settings.getChatId())
             + "&text=" + encode(text);
@@ -146,8 +296,29 @@ public final class TelegramBridge {
             .POST(HttpRequest.BodyPublishers.ofString(body))
             .build();
 
-        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
-            .exceptionally(ignored -> null);
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1L;
+        } catch (Exception ex) {
+            return -1L;
+        }
+        if (response.statusCode() == 200) {
+            return 0L;
+        }
+        if (response.statusCode() == 429) {
+            try {
+                TelegramResponse payload = GSON.fromJson(response.body(), TelegramResponse.class);
+                if (payload != null && payload.parameters != null && payload.parameters.retryAfter > 0) {
+                    return payload.parameters.retryAfter * 1000L;
+                }
+            } catch (Exception ignored) {
+            }
+            return 1000L;
+        }
+        return -1L;
     }
 
     private String encode(String text) {
@@ -170,6 +341,12 @@ public final class TelegramBridge {
     private static final class TelegramResponse {
         boolean ok;
         List<Update> result;
+        ResponseParameters parameters;
+    }
+
+    private static final class ResponseParameters {
+        @SerializedName("retry_after")
+        long retryAfter;
     }
 
     private static final class Update {
@@ -0,0 +1,268 @@
+package com.hakune.chat;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+// Outbound Telegram lines: bounded queue, lines arriving close together are sent as one
+// message (up to Telegram's 4096 chars), and sends are paced by a token bucket.
+public final class TelegramOutbox {
+    static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final int BURST = 3;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long DRAIN_MILLIS = 3000L;
+
+    enum OverflowPolicy {
+        MERGE,
+        DROP_OLDEST,
+        DROP_NEWEST;
+
+        static OverflowPolicy from(String raw) {
+            if (raw == null) {
+                return MERGE;
+            }
+            return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+                case "drop-oldest" -> DROP_OLDEST;
+                case "drop-newest" -> DROP_NEWEST;
+                default -> MERGE;
+            };
+        }
+    }
+
+    private final ArrayDeque<String> queue = new ArrayDeque<>();
+    private final int capacity;
+    private final long batchMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final TokenBucket bucket;
+    // Returns 0 when sent, retry_after in millis when rate limited, -1 on failure.
+    private final ToLongFunction<String> sender;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Thread thread;
+    private volatile boolean closed;
+    // Batch taken off the queue but not yet delivered; the final drain picks it up.
+    private volatile String inFlight;
+
+    public TelegramOutbox(
+        int capacity,
+        long batchMillis,
+        int messagesPerMinute,
+        String overflowPolicy,
+        ToLongFunction<String> sender
+    ) {
+        this.capacity = Math.max(1, capacity);
+        this.batchMillis = Math.max(0L, batchMillis);
+        this.overflowPolicy = OverflowPolicy.from(overflowPolicy);
+        this.bucket = new TokenBucket(BURST, Math.max(1, messagesPerMinute) / 60_000.0);
+        this.sender = sender;
+    }
+
+    public void start() {
+        Thread worker = new Thread(this::run, "HakuneChat-Telegram-Send");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    // Interrupts the pacing and retries; the worker then makes one bounded attempt to send
+    // what is left before it exits. Whatever that attempt does not send counts as dropped.
+    public void stop() {
+        closed = true;
+        Thread worker = thread;
+        thread = null;
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        try {
+            worker.join(DRAIN_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void offer(String line) {
+        if (line == null || line.isEmpty()) {
+            return;
+        }
+        synchronized (queue) {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (queue.size() >= capacity) {
+                switch (overflowPolicy) {
+                    case MERGE -> {
+                        String last = queue.pollLast();
+                        if (last != null && last.length() + 1 + line.length() <= MAX_MESSAGE_LENGTH) {
+                            queue.addLast(last + "\n" + line);
+                            return;
+                        }
+                        if (last != null) {
+                            queue.addLast(last);
+                        }
+                        queue.pollFirst();
+                        dropped.increment();
+                    }
+                    case DROP_OLDEST -> {
+                        queue.pollFirst();
+                        dropped.increment();
+                    }
+                    case DROP_NEWEST -> {
+                        dropped.increment();
+                        return;
+                    }
+                }
+            }
+            queue.addLast(line);
+            queue.notifyAll();
+        }
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public int getQueued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private void run() {
+        try {
+            while (thread == Thread.currentThread()) {
+                String batch = nextBatch();
+                inFlight = batch;
+                bucket.acquire();
+                deliver(batch);
+                inFlight = null;
+            }
+        } catch (InterruptedException ignored) {
+            // Stopped.
+        }
+        drain();
+    }
+
+    // Last pass after stop(): remaining lines are packed into as few messages as possible
+    // and each gets a single attempt, without pacing, until the drain time runs out.
+    private void drain() {
+        Thread.interrupted();
+        ArrayDeque<String> rest = new ArrayDeque<>();
+        synchronized (queue) {
+            String pending = inFlight;
+            inFlight = null;
+            if (pending != null) {
+                queue.addFirst(pending);
+            }
+            while (!queue.isEmpty()) {
+                rest.add(pollBatch());
+            }
+        }
+        long deadline = System.currentTimeMillis() + DRAIN_MILLIS;
+        for (String text : rest) {
+            long result = -1L;
+            if (System.currentTimeMillis() < deadline) {
+                try {
+                    result = sender.applyAsLong(text);
+                } catch (RuntimeException ignored) {
+                }
+            }
+            if (result == 0L) {
+                sent.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    // Waits for a line, then gives the batch window for more lines to join it.
+    private String nextBatch() throws InterruptedException {
+        synchronized (queue) {
+            while (queue.isEmpty()) {
+                queue.wait();
+            }
+        }
+        if (batchMillis > 0) {
+            Thread.sleep(batchMillis);
+        }
+        synchronized (queue) {
+            return pollBatch();
+        }
+    }
+
+    // Joins lines from the queue head into one message; the caller holds the queue lock.
+    private String pollBatch() {
+        StringBuilder batch = new StringBuilder(take(queue.pollFirst()));
+        while (!queue.isEmpty() && batch.length() + 1 + queue.peekFirst().length() <= MAX_MESSAGE_LENGTH) {
+            batch.append('\n').append(queue.pollFirst());
+        }
+        return batch.toString();
+    }
+
+    // Lines longer than one message are split; the rest goes back to the queue head.
+    private String take(String line) {
+        if (line.length() <= MAX_MESSAGE_LENGTH) {
+            return line;
+        }
+        queue.addFirst(line.substring(MAX_MESSAGE_LENGTH));
+        return line.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private void deliver(String text) throws InterruptedException {
+        long backoff = 1000L;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long result;
+            try {
+                result = sender.applyAsLong(text);
+            } catch (RuntimeException ex) {
+                result = -1L;
+            }
+            if (result == 0L) {
+                sent.increment();
+                return;
+            }
+            if (result > 0L) {
+                // Rate limited: the attempt does not count, Telegram told us when to come back.
+                attempt--;
+                Thread.sleep(result);
+                continue;
+            }
+            Thread.sleep(backoff);
+            backoff *= 2;
+        }
+        dropped.increment();
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long updatedAt;
+
+        private TokenBucket(double capacity, double tokensPerMilli) {
+            this.capacity = capacity;
+            this.tokensPerMilli = tokensPerMilli;
+            this.tokens = capacity;
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        private void acquire() throws InterruptedException {
+            while (true) {
+                long now = System.currentTimeMillis();
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerMilli);
+                updatedAt = now;
+                if (tokens >= 1.0) {
+                    tokens -= 1.0;
+                    return;
+                }
+                Thread.sleep((long) Math.ceil((1.0 - tokens) / tokensPerMilli));
+            }
+        }
+    }
+}
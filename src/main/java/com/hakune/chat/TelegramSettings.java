@@ -7,6 +7,16 @@ public final class TelegramSettings {
     private final int pollIntervalSeconds;
     private final String formatToTelegram;
     private final String formatFromTelegram;
+    private final int queueSize;
+    private final int batchMillis;
+    private final int messagesPerMinute;
+    private final String overflowPolicy;
+    private final String mode;
+    private final String webhookBind;
+    private final int webhookPort;
+    private final String webhookPath;
+    private final String webhookSecret;
+    private final String webhookPublicUrl;
 
     public TelegramSettings(
         boolean enabled,
@@ -14,7 +24,17 @@ public final class TelegramSettings {
         String chatId,
         int pollIntervalSeconds,
         String formatToTelegram,
-        String formatFromTelegram
+        String formatFromTelegram,
+        int queueSize,
+        int batchMillis,
+        int messagesPerMinute,
+        String overflowPolicy,
+        String mode,
+        String webhookBind,
+        int webhookPort,
+        String webhookPath,
+        String webhookSecret,
+        String webhookPublicUrl
     ) {
         this.enabled = enabled;
         this.token = token;
@@ -22,6 +42,16 @@ public final class TelegramSettings {
         this.pollIntervalSeconds = pollIntervalSeconds;
         this.formatToTelegram = formatToTelegram;
         this.formatFromTelegram = formatFromTelegram;
+        this.queueSize = queueSize;
+        this.batchMillis = batchMillis;
+        this.messagesPerMinute = messagesPerMinute;
+        this.overflowPolicy = overflowPolicy;
+        this.mode = mode;
+        this.webhookBind = webhookBind;
+        this.webhookPort = webhookPort;
+        this.webhookPath = webhookPath;
+        this.webhookSecret = webhookSecret;
+        this.webhookPublicUrl = webhookPublicUrl;
     }
 
     public boolean isEnabled() {
@@ -47,4 +77,44 @@ public final class TelegramSettings {
     public String getFormatFromTelegram() {
         return formatFromTelegram;
     }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getBatchMillis() {
+        return batchMillis;
+    }
+
+    public int getMessagesPerMinute() {
+        return messagesPerMinute;
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public boolean isWebhookMode() {
+        return "webhook".equalsIgnoreCase(mode);
+    }
+
+    public String getWebhookBind() {
+        return webhookBind;
+    }
+
+    public int getWebhookPort() {
+        return webhookPort;
+    }
+
+    public String getWebhookPath() {
+        return webhookPath;
+    }
+
+    public String getWebhookSecret() {
+        return webhookSecret;
+    }
+
+    public String getWebhookPublicUrl() {
+        return webhookPublicUrl;
+    }
 }
@@ -0,0 +1,89 @@
+package com.hakune.chat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Embedded endpoint for Telegram webhook POSTs. Every request must carry the configured
+// X-Telegram-Bot-Api-Secret-Token; the body (one Update as JSON) goes to the handler.
+public final class TelegramWebhookServer {
+    static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final String bind;
+    private final int port;
+    private final String path;
+    private final byte[] secret;
+    private final Consumer<String> handler;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public TelegramWebhookServer(String bind, int port, String path, String secret, Consumer<String> handler) {
+        this.bind = bind == null || bind.isBlank() ? "0.0.0.0" : bind;
+        this.port = port;
+        this.path = path == null || path.isBlank() ? "/telegram" : (path.startsWith("/") ? path : "/" + path);
+        this.secret = (secret == null ? "" : secret).getBytes(StandardCharsets.UTF_8);
+        this.handler = handler;
+    }
+
+    public void start() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        server.createContext(path, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String token = exchange.getRequestHeaders().getFirst(SECRET_HEADER);
+            byte[] provided = (token == null ? "" : token).getBytes(StandardCharsets.UTF_8);
+            if (secret.length == 0 || !MessageDigest.isEqual(secret, provided)) {
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    exchange.sendResponseHeaders(413, -1);
+                    return;
+                }
+                body = new String(bytes, StandardCharsets.UTF_8);
+            }
+            // Handle before acknowledging so updates are processed in delivery order; a bad
+            // payload is still acknowledged, otherwise Telegram keeps redelivering it.
+            try {
+                handler.accept(body);
+            } finally {
+                exchange.sendResponseHeaders(200, -1);
+            }
+        }
+    }
+}
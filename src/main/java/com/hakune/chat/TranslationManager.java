@@ -20,6 +20,13 @@ public final class TranslationManager {
         this.active = fallback;
     }
 
+    // Detached from a plugin, for benchmarks and tooling that load a language file directly.
+    TranslationManager(FileConfiguration language) {
+        this.plugin = null;
+        this.fallback = language;
+        this.active = language;
+    }
+
     public void reload(String language) {
         this.language = (language == null || language.isBlank()) ? "en" : language.toLowerCase();
         this.fallback = loadLang("en");
@@ -0,0 +1,36 @@
+package com.hakune.chat;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.entity.Player;
+
+public enum ViewerClass {
+    JAVA,
+    BEDROCK,
+    CONSOLE;
+
+    public static ViewerClass of(HakuneChatPlugin plugin, Player viewer) {
+        if (viewer == null) {
+            return CONSOLE;
+        }
+        return plugin.getBedrockDetector().isBedrock(viewer.getUniqueId()) ? BEDROCK : JAVA;
+    }
+
+    public static Map<ViewerClass, List<Player>> partition(HakuneChatPlugin plugin, Iterable<? extends Player> viewers) {
+        Map<ViewerClass, List<Player>> groups = new EnumMap<>(ViewerClass.class);
+        for (Player viewer : viewers) {
+            groups.computeIfAbsent(of(plugin, viewer), ignored -> new ArrayList<>()).add(viewer);
+        }
+        return groups;
+    }
+
+    public boolean isBedrock() {
+        return this == BEDROCK;
+    }
+
+    public boolean isInteractive() {
+        return this == JAVA;
+    }
+}
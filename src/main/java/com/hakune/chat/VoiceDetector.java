@@ -1,13 +1,35 @@
 package com.hakune.chat;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitTask;
+
+// Voice status lives in an in-memory set of connected players. SimpleVoiceChat feeds it
+// through connect/disconnect events; a slow sweep with the old placeholder/reflection
+// checks reconciles it (and is the only source for PlasmoVoice).
+public final class VoiceDetector implements Listener {
+    private static final long SWEEP_TICKS = 100L;
+    private static final long SWEEP_TICKS_WITH_EVENTS = 600L;
+    // SimpleVoiceChat has no way to unregister a plugin, so it is registered once and
+    // forwards events to whichever detector is current.
+    private static volatile VoiceDetector eventTarget;
+    private static boolean svcEventsRegistered;
 
-public final class VoiceDetector {
     private enum Provider {
         NONE,
         PLASMO_VOICE,
@@ -27,6 +49,10 @@ public final class VoiceDetector {
     private final Method svcInstalledMethod;
     private final Method svcApiInstanceMethod;
 
+    private final Set<UUID> connected = ConcurrentHashMap.newKeySet();
+    private BukkitTask sweepTask;
+    private volatile IndicatorCache indicators;
+
     public VoiceDetector(HakuneChatPlugin plugin, PluginManager pluginManager) {
         this.plugin = plugin;
 
@@ -96,19 +122,179 @@ public final class VoiceDetector {
         this.svcApiInstanceMethod = sApiInstance;
     }
 
+    public void start() {
+        eventTarget = this;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        boolean events = provider == Provider.SIMPLE_VOICE_CHAT && registerSimpleVoiceChatEvents();
+        sweep();
+        sweepTask = Bukkit.getScheduler().runTaskTimer(
+            plugin,
+            this::sweep,
+            events ? SWEEP_TICKS_WITH_EVENTS : SWEEP_TICKS,
+            events ? SWEEP_TICKS_WITH_EVENTS : SWEEP_TICKS
+        );
+    }
+
+    public void stop() {
+        if (eventTarget == this) {
+            eventTarget = null;
+        }
+        HandlerList.unregisterAll(this);
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+    }
+
     public String getVoiceIndicator(Player player) {
+        IndicatorCache cache = indicators();
+        if (cache == null) {
+            return "";
+        }
+        return connected.contains(player.getUniqueId()) ? cache.onText() : cache.offText();
+    }
+
+    public Component getVoiceComponent(Player player) {
+        IndicatorCache cache = indicators();
+        if (cache == null) {
+            return Component.empty();
+        }
+        return connected.contains(player.getUniqueId()) ? cache.on() : cache.off();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        update(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        connected.remove(event.getPlayer().getUniqueId());
+    }
+
+    // Indicator texts are deserialized once per settings instance.
+    private IndicatorCache indicators() {
         ChatSettings settings = plugin.getSettings();
         if (settings == null || !settings.isVoiceIndicatorEnabled()) {
-            return "";
+            return null;
+        }
+        IndicatorCache cache = indicators;
+        if (cache == null || cache.settings() != settings) {
+            String on = settings.getVoiceIndicatorOn();
+            String off = settings.getVoiceIndicatorOff();
+            cache = new IndicatorCache(settings, on, off, ChatTemplate.text(on), ChatTemplate.text(off));
+            indicators = cache;
+        }
+        return cache;
+    }
+
+    private void sweep() {
+        if (provider == Provider.NONE && !plugin.getServer().getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+            connected.clear();
+            return;
         }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player);
+        }
+        connected.removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+    }
 
+    private void update(Player player) {
         Boolean placeholderValue = readPlaceholderState(player);
-        if (placeholderValue != null) {
-            return placeholderValue ? settings.getVoiceIndicatorOn() : settings.getVoiceIndicatorOff();
+        boolean hasVoice = placeholderValue != null ? placeholderValue : hasVoice(player.getUniqueId());
+        setConnected(player.getUniqueId(), hasVoice);
+    }
+
+    private void setConnected(UUID uuid, boolean hasVoice) {
+        if (hasVoice) {
+            connected.add(uuid);
+        } else {
+            connected.remove(uuid);
         }
+    }
 
-        boolean hasVoice = hasVoice(player.getUniqueId());
-        return hasVoice ? settings.getVoiceIndicatorOn() : settings.getVoiceIndicatorOff();
+    // Registers a VoicechatPlugin proxy listening for PlayerConnectedEvent/PlayerDisconnectedEvent.
+    private boolean registerSimpleVoiceChatEvents() {
+        synchronized (VoiceDetector.class) {
+            if (svcEventsRegistered) {
+                return true;
+            }
+            try {
+                Class<?> serviceClass = Class.forName("de.maxhenkel.voicechat.api.BukkitVoicechatService");
+                Class<?> pluginClass = Class.forName("de.maxhenkel.voicechat.api.VoicechatPlugin");
+                Class<?> registrationClass = Class.forName("de.maxhenkel.voicechat.api.events.EventRegistration");
+                Class<?> connectedClass = Class.forName("de.maxhenkel.voicechat.api.events.PlayerConnectedEvent");
+                Class<?> disconnectedClass = Class.forName("de.maxhenkel.voicechat.api.events.PlayerDisconnectedEvent");
+                Method registerEvent = registrationClass.getMethod("registerEvent", Class.class, Consumer.class);
+                Method getConnection = connectedClass.getMethod("getConnection");
+                Method getPlayerUuid = disconnectedClass.getMethod("getPlayerUuid");
+                // Looked up on the API interfaces: the implementation classes are not public.
+                Method connectionPlayer = Class.forName("de.maxhenkel.voicechat.api.VoicechatConnection").getMethod("getPlayer");
+                Method playerUuid = Class.forName("de.maxhenkel.voicechat.api.ServerPlayer").getMethod("getUuid");
+                Object service = Bukkit.getServicesManager().load(serviceClass);
+                if (service == null) {
+                    return false;
+                }
+
+                Consumer<Object> onConnected = event -> {
+                    VoiceDetector target = eventTarget;
+                    if (target == null) {
+                        return;
+                    }
+                    try {
+                        Object connection = getConnection.invoke(event);
+                        Object player = connectionPlayer.invoke(connection);
+                        Object uuid = playerUuid.invoke(player);
+                        if (uuid instanceof UUID id) {
+                            target.setConnected(id, true);
+                        }
+                    } catch (ReflectiveOperationException ignored) {
+                    }
+                };
+                Consumer<Object> onDisconnected = event -> {
+                    VoiceDetector target = eventTarget;
+                    if (target == null) {
+                        return;
+                    }
+                    try {
+                        Object uuid = getPlayerUuid.invoke(event);
+                        if (uuid instanceof UUID id) {
+                            target.setConnected(id, false);
+                        }
+                    } catch (ReflectiveOperationException ignored) {
+                    }
+                };
+
+                Object voicePlugin = Proxy.newProxyInstance(
+                    pluginClass.getClassLoader(),
+                    new Class<?>[] {pluginClass},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getPluginId":
+                                return "hakunechat";
+                            case "registerEvents":
+                                registerEvent.invoke(args[0], connectedClass, onConnected);
+                                registerEvent.invoke(args[0], disconnectedClass, onDisconnected);
+                                return null;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "HakuneChat voice listener";
+                            default:
+                                return null;
+                        }
+                    }
+                );
+                serviceClass.getMethod("registerPlugin", pluginClass).invoke(service, voicePlugin);
+                svcEventsRegistered = true;
+                return true;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                plugin.getLogger().warning("SimpleVoiceChat events unavailable, using periodic checks: " + ex.getMessage());
+                return false;
+            }
+        }
     }
 
     public boolean hasVoice(UUID uuid) {
@@ -228,6 +414,9 @@ public final class VoiceDetector {
         }
     }
 
+    private record IndicatorCache(ChatSettings settings, String onText, String offText, Component on, Component off) {
+    }
+
     private static Method findMethod(Class<?> type, String... names) {
         for (String name : names) {
             try {
@@ -0,0 +1,328 @@
+package com.hakune.chat.sim;
+
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.chat.SignedMessage;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+
+// Headless chat storm: loads the real plugin against stand-in Server/Player/World objects,
+// joins a crowd, walks it around and fires chat from "network" threads at a fixed rate.
+// Reports main-thread time per tick, allocation per chat message and delivery latency.
+public final class ChatStormSimulator {
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final String[] WORDS = {
+        "hello", "anyone", "near", "spawn", "trade", "diamonds", "for", "iron", "lol", "brb",
+        "base", "north", "&aok", "who", "wants", "to", "raid", "the", "end", "tonight"
+    };
+
+    private final SimOptions options;
+    private final Recorder recorder;
+    private final SimServer server;
+    private final Random random;
+    private final List<SimPlayer> crowd = new ArrayList<>();
+    private final AtomicInteger messageIds = new AtomicInteger();
+    private final AtomicInteger measuredMessages = new AtomicInteger();
+    private volatile boolean measuring;
+
+    private ChatStormSimulator(SimOptions options) {
+        this.options = options;
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8L,
+            (long) Math.ceil(options.messagesPerSecond() * (options.warmupSeconds() + options.durationSeconds() + 30)) * 2L + 1024L);
+        this.recorder = new Recorder(capacity);
+        this.server = new SimServer(recorder);
+        this.random = new Random(options.seed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimOptions options = SimOptions.parse(args);
+        new ChatStormSimulator(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        server.install();
+        JavaPlugin plugin = loadPlugin();
+        setEnabled(plugin, true);
+
+        createCrowd();
+        joinCrowd();
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(daemon("sim-chat-ticker"));
+        ExecutorService network = Executors.newFixedThreadPool(options.chatThreads(), daemon("sim-netty"));
+        long period = Math.max(1L, (long) (1_000_000_000L / options.messagesPerSecond()));
+        ticker.scheduleAtFixedRate(() -> network.execute(this::chat), period, period, TimeUnit.NANOSECONDS);
+
+        runTicks(options.warmupSeconds() * 20);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allBefore = threads.getTotalThreadAllocatedBytes();
+        long mainBefore = threads.getCurrentThreadAllocatedBytes();
+        measuring = true;
+        recorder.measuring(true);
+
+        runTicks(options.durationSeconds() * 20);
+        ticker.shutdownNow();
+        network.shutdown();
+        network.awaitTermination(5, TimeUnit.SECONDS);
+        runTicks(20);
+
+        recorder.measuring(false);
+        measuring = false;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allBefore;
+        long mainAllocated = threads.getCurrentThreadAllocatedBytes() - mainBefore;
+
+        report(allocated, mainAllocated);
+
+        for (SimPlayer player : new ArrayList<>(server.online())) {
+            server.callEvent(Events.create(PlayerQuitEvent.class, player.proxy(), Component.empty()));
+            server.disconnect(player);
+        }
+        runTicks(5);
+        setEnabled(plugin, false);
+        server.scheduler().shutdown();
+    }
+
+    private JavaPlugin loadPlugin() throws Exception {
+        ClassLoader parent = ChatStormSimulator.class.getClassLoader();
+        PluginDescriptionFile description;
+        try (InputStream in = parent.getResourceAsStream("plugin.yml")) {
+            if (in == null) {
+                throw new IllegalStateException("plugin.yml not on the classpath");
+            }
+            description = new PluginDescriptionFile(in);
+        }
+        File dataFolder = Files.createTempDirectory("hakunechat-sim").toFile();
+        writeConfig(parent, dataFolder);
+
+        String classFile = description.getMain().replace('.', '/') + ".class";
+        URL classUrl = parent.getResource(classFile);
+        if (classUrl == null) {
+            throw new IllegalStateException(classFile + " not on the classpath");
+        }
+        String external = classUrl.toExternalForm();
+        URL root = java.net.URI.create(external.substring(0, external.length() - classFile.length())).toURL();
+        SimPluginLoader loader = new SimPluginLoader(root, parent, server.proxy(), description, dataFolder);
+        return loader.createPlugin();
+    }
+
+    // Plugin defaults with outbound integrations and metrics switched off.
+    private void writeConfig(ClassLoader parent, File dataFolder) throws Exception {
+        YamlConfiguration config = load(parent, "config.yml");
+        config.set("bstats.enabled", false);
+        config.set("bedrock-skins.enabled", false);
+        config.set("translations.language", "en");
+        config.set("chat.async-renderer", options.asyncRenderer());
+        config.save(new File(dataFolder, "config.yml"));
+
+        YamlConfiguration integration = load(parent, "integration.yml");
+        integration.set("integration.telegram.enabled", false);
+        integration.set("integration.discord.enabled", false);
+        integration.save(new File(dataFolder, "integration.yml"));
+
+        YamlConfiguration formatting = load(parent, "formatting.yml");
+        formatting.set("head-message.render-mode", options.headMode());
+        formatting.save(new File(dataFolder, "formatting.yml"));
+    }
+
+    private static YamlConfiguration load(ClassLoader loader, String name) throws Exception {
+        try (InputStream in = loader.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException(name + " not on the classpath");
+            }
+            return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void setEnabled(JavaPlugin plugin, boolean enabled) throws ReflectiveOperationException {
+        Method method = JavaPlugin.class.getDeclaredMethod("setEnabled", boolean.class);
+        method.setAccessible(true);
+        method.invoke(plugin, enabled);
+    }
+
+    private void createCrowd() {
+        double half = options.spread() / 2.0;
+        for (int i = 0; i < options.players(); i++) {
+            boolean bedrock = random.nextDouble() < options.bedrockRatio();
+            // Floodgate-style ids for Bedrock players: most significant bits are zero.
+            UUID id = bedrock ? new UUID(0L, random.nextLong()) : new UUID(random.nextLong() | 1L, random.nextLong());
+            Location location = new Location(
+                server.world().proxy(),
+                random.nextDouble() * options.spread() - half,
+                64.0,
+                random.nextDouble() * options.spread() - half
+            );
+            crowd.add(new SimPlayer(server, "sim" + i, id, bedrock, location));
+        }
+    }
+
+    private void joinCrowd() {
+        int ticks = Math.max(1, options.joinTicks());
+        int perTick = (int) Math.ceil(crowd.size() / (double) ticks);
+        int joined = 0;
+        while (joined < crowd.size()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < perTick && joined < crowd.size(); i++, joined++) {
+                SimPlayer player = crowd.get(joined);
+                server.connect(player);
+                server.callEvent(Events.create(PlayerJoinEvent.class, player.proxy(), Component.empty()));
+            }
+            server.tick();
+            pace(start);
+        }
+    }
+
+    private void runTicks(int count) {
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            moveCrowd();
+            server.tick();
+            recorder.tick(System.nanoTime() - start);
+            pace(start);
+        }
+    }
+
+    private void moveCrowd() {
+        List<SimPlayer> online = server.online();
+        if (online.isEmpty() || options.moveRatio() <= 0) {
+            return;
+        }
+        int moves = (int) Math.round(online.size() * options.moveRatio());
+        for (int i = 0; i < moves; i++) {
+            SimPlayer player = online.get(random.nextInt(online.size()));
+            Location from = player.location();
+            Location to = from.clone().add(random.nextDouble() * 1.2 - 0.6, 0.0, random.nextDouble() * 1.2 - 0.6);
+            PlayerMoveEvent event = Events.create(PlayerMoveEvent.class, player.proxy(), from, to);
+            server.callEvent(event);
+            if (!event.isCancelled()) {
+                player.location(event.getTo());
+            }
+        }
+    }
+
+    // One chat line from a random player, fired off the main thread like Paper does.
+    private void chat() {
+        List<SimPlayer> online = server.online();
+        if (online.isEmpty()) {
+            return;
+        }
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        SimPlayer sender = online.get(rnd.nextInt(online.size()));
+        int id = messageIds.getAndIncrement();
+        StringBuilder text = new StringBuilder();
+        if (rnd.nextDouble() < options.globalRatio()) {
+            text.append('!');
+        }
+        text.append('s').append(id);
+        int words = 2 + rnd.nextInt(18);
+        for (int i = 0; i < words; i++) {
+            text.append(' ').append(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        Component message = Component.text(text.toString());
+
+        Set<Audience> viewers = new HashSet<>();
+        for (SimPlayer player : online) {
+            viewers.add(player.proxy());
+        }
+        viewers.add(server.proxy().getConsoleSender());
+
+        AsyncChatEvent event = Events.create(
+            AsyncChatEvent.class,
+            Boolean.TRUE,
+            sender.proxy(),
+            viewers,
+            ChatRenderer.defaultRenderer(),
+            message,
+            message,
+            SignedMessage.system(text.toString(), message)
+        );
+        if (measuring) {
+            measuredMessages.incrementAndGet();
+        }
+        recorder.sent(id);
+        server.callEvent(event);
+        if (event.isCancelled()) {
+            return;
+        }
+        Player source = sender.proxy();
+        for (Audience viewer : event.viewers()) {
+            viewer.sendMessage(event.renderer().render(source, source.displayName(), event.message(), viewer));
+        }
+    }
+
+    private void report(long allocated, long mainAllocated) {
+        long[] ticks = recorder.tickNanos();
+        long[] latency = recorder.latencyNanos();
+        int messages = Math.max(1, measuredMessages.get());
+        SimWorld world = server.world();
+        System.out.println();
+        System.out.println("HakuneChat chat storm simulation");
+        System.out.println("  " + options.describe());
+        System.out.printf("  chat messages           %d (%.1f/s)%n", measuredMessages.get(), measuredMessages.get() / (double) options.durationSeconds());
+        System.out.printf("  chat lines delivered    %d%n", recorder.deliveries());
+        System.out.printf("  main thread per tick    mean %.3f ms  p50 %.3f ms  p99 %.3f ms  max %.3f ms%n",
+            Recorder.meanMillis(ticks),
+            Recorder.percentileMillis(ticks, 50),
+            Recorder.percentileMillis(ticks, 99),
+            Recorder.percentileMillis(ticks, 100));
+        System.out.printf("  delivery latency        p50 %.3f ms  p99 %.3f ms  (%d samples)%n",
+            Recorder.percentileMillis(latency, 50),
+            Recorder.percentileMillis(latency, 99),
+            latency.length);
+        System.out.printf("  allocation per message  all threads %.1f KiB  main thread %.1f KiB%n",
+            allocated / 1024.0 / messages,
+            mainAllocated / 1024.0 / messages);
+        System.out.printf("  tab header/footer sends %d%n", recorder.tabHeaders());
+        System.out.printf("  tab list name updates   %d%n", recorder.tabNames());
+        System.out.printf("  scoreboard team updates %d (%d teams)%n", server.scoreboards().teamUpdates.sum(), server.scoreboards().teamCount());
+        System.out.printf("  head message entities   spawned %d  removed %d  alive %d  teleports %d%n",
+            world.spawned.sum(), world.removed.sum(), world.alive.get(), world.teleports.sum());
+    }
+
+    private static void pace(long start) {
+        long remaining = TICK_NANOS - (System.nanoTime() - start);
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
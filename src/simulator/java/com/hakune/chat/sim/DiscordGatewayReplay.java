@@ -0,0 +1,324 @@
+package com.hakune.chat.sim;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the Discord Gateway: a bare WebSocket server that sends the recorded
+// HELLO, waits for IDENTIFY (or RESUME), replays the recorded dispatch frames and answers
+// heartbeats. --reconnect-after=N sends op 7 after N dispatches so the client has to come
+// back and resume. Point discord.gateway-url at ws://127.0.0.1:<port>/?v=10&encoding=json.
+//
+//   [--port=8765] [--channel-id=...] [--delay-ms=500] [--heartbeat-ms=5000] [--reconnect-after=4]
+//   [--linger-ms=15000] [file.jsonl]
+public final class DiscordGatewayReplay {
+    private static final String RECORDED_CHANNEL = "1203458712345678901";
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final List<JsonObject> dispatches = new ArrayList<>();
+    private final JsonObject hello;
+    private final long delayMillis;
+    private final int reconnectAfter;
+    private final long lingerMillis;
+    private final AtomicInteger heartbeats = new AtomicInteger();
+    private int identifies;
+    private int resumes;
+    private int sent;
+
+    private DiscordGatewayReplay(List<JsonObject> frames, long heartbeatMillis, long delayMillis, int reconnectAfter, long lingerMillis) {
+        JsonObject first = null;
+        for (JsonObject frame : frames) {
+            if (frame.get("op").getAsInt() == 10) {
+                first = frame;
+            } else if (frame.get("op").getAsInt() == 0) {
+                dispatches.add(frame);
+            }
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("Recording has no HELLO (op 10) frame");
+        }
+        if (heartbeatMillis > 0) {
+            first.getAsJsonObject("d").addProperty("heartbeat_interval", heartbeatMillis);
+        }
+        this.hello = first;
+        this.delayMillis = delayMillis;
+        this.reconnectAfter = reconnectAfter;
+        this.lingerMillis = lingerMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 8765;
+        String channelId = null;
+        long delayMillis = 500L;
+        long heartbeatMillis = 5000L;
+        int reconnectAfter = 4;
+        long lingerMillis = 15_000L;
+        Path file = null;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring(7));
+            } else if (arg.startsWith("--channel-id=")) {
+                channelId = arg.substring(13);
+            } else if (arg.startsWith("--delay-ms=")) {
+                delayMillis = Long.parseLong(arg.substring(11));
+            } else if (arg.startsWith("--heartbeat-ms=")) {
+                heartbeatMillis = Long.parseLong(arg.substring(15));
+            } else if (arg.startsWith("--reconnect-after=")) {
+                reconnectAfter = Integer.parseInt(arg.substring(18));
+            } else if (arg.startsWith("--linger-ms=")) {
+                lingerMillis = Long.parseLong(arg.substring(12));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            } else {
+                file = Path.of(arg);
+            }
+        }
+
+        List<JsonObject> frames = new ArrayList<>();
+        try (BufferedReader reader = file != null
+            ? Files.newBufferedReader(file, StandardCharsets.UTF_8)
+            : new BufferedReader(new InputStreamReader(resource("/recorded/discord-gateway.jsonl"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    frames.add(JsonParser.parseString(line).getAsJsonObject());
+                }
+            }
+        }
+        String resumeUrl = "ws://127.0.0.1:" + port;
+        for (JsonObject frame : frames) {
+            JsonElement data = frame.get("d");
+            if (data == null || !data.isJsonObject()) {
+                continue;
+            }
+            JsonObject d = data.getAsJsonObject();
+            if (d.has("resume_gateway_url")) {
+                d.addProperty("resume_gateway_url", resumeUrl);
+            }
+            if (channelId != null && d.has("channel_id") && RECORDED_CHANNEL.equals(d.get("channel_id").getAsString())) {
+                d.addProperty("channel_id", channelId);
+            }
+        }
+
+        DiscordGatewayReplay replay = new DiscordGatewayReplay(frames, heartbeatMillis, delayMillis, reconnectAfter, lingerMillis);
+        try (ServerSocket server = new ServerSocket(port, 4, InetAddress.getLoopbackAddress())) {
+            System.out.println("Gateway stand-in on ws://127.0.0.1:" + port + "/?v=10&encoding=json");
+            while (!replay.serve(server.accept())) {
+                System.out.println("client reconnecting...");
+            }
+        }
+        System.out.println("dispatches=" + replay.sent + " identify=" + replay.identifies
+            + " resume=" + replay.resumes + " heartbeats=" + replay.heartbeats.get());
+    }
+
+    // Returns true once every recorded dispatch was sent and the linger time passed.
+    private boolean serve(Socket socket) throws Exception {
+        try (socket) {
+            Connection connection = new Connection(socket);
+            connection.handshake();
+            connection.sendText(hello.toString());
+            BlockingQueue<JsonObject> control = new LinkedBlockingQueue<>();
+            Thread reader = new Thread(() -> connection.readLoop(control), "gateway-replay-reader");
+            reader.setDaemon(true);
+            reader.start();
+
+            JsonObject first = control.poll(30, TimeUnit.SECONDS);
+            if (first == null) {
+                System.out.println("no IDENTIFY/RESUME within 30 s");
+                return true;
+            }
+            int op = first.get("op").getAsInt();
+            JsonObject d = first.getAsJsonObject("d");
+            if (op == 2) {
+                identifies++;
+                System.out.println("IDENTIFY intents=" + d.get("intents"));
+                sent = 0;
+            } else if (op == 6) {
+                resumes++;
+                System.out.println("RESUME session=" + d.get("session_id").getAsString() + " seq=" + d.get("seq"));
+                JsonObject resumed = new JsonObject();
+                resumed.addProperty("t", "RESUMED");
+                resumed.addProperty("s", sent + 1);
+                resumed.addProperty("op", 0);
+                resumed.add("d", JsonNull.INSTANCE);
+                connection.sendText(resumed.toString());
+            }
+
+            boolean reconnectSent = resumes > 0 || reconnectAfter <= 0;
+            while (sent < dispatches.size()) {
+                if (!reconnectSent && sent == reconnectAfter) {
+                    System.out.println("sending RECONNECT (op 7)");
+                    connection.sendText("{\"t\":null,\"s\":null,\"op\":7,\"d\":null}");
+                    reader.join(10_000L);
+                    return false;
+                }
+                Thread.sleep(delayMillis);
+                connection.sendText(dispatches.get(sent).toString());
+                System.out.println("-> " + dispatches.get(sent).get("t").getAsString());
+                sent++;
+            }
+            Thread.sleep(lingerMillis);
+            connection.sendClose(1000);
+            return true;
+        }
+    }
+
+    private static InputStream resource(String name) {
+        InputStream in = DiscordGatewayReplay.class.getResourceAsStream(name);
+        if (in == null) {
+            throw new IllegalStateException(name + " is missing from the classpath");
+        }
+        return in;
+    }
+
+    // Server side of RFC 6455, just enough for the JDK client: text, close, ping.
+    private final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        private void handshake() throws Exception {
+            String key = null;
+            String line;
+            while (!(line = readLine()).isEmpty()) {
+                int split = line.indexOf(':');
+                if (split > 0 && line.substring(0, split).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(split + 1).trim();
+                }
+            }
+            if (key == null) {
+                throw new IOException("Not a WebSocket upgrade");
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest((key + WS_GUID).getBytes(StandardCharsets.US_ASCII));
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + Base64.getEncoder().encodeToString(digest) + "\r\n\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            if (b == -1 && line.isEmpty()) {
+                throw new IOException("Connection closed during handshake");
+            }
+            return line.toString();
+        }
+
+        private void readLoop(BlockingQueue<JsonObject> control) {
+            StringBuilder text = new StringBuilder();
+            try {
+                while (true) {
+                    int head = in.readUnsignedByte();
+                    int second = in.readUnsignedByte();
+                    long length = second & 0x7F;
+                    if (length == 126) {
+                        length = in.readUnsignedShort();
+                    } else if (length == 127) {
+                        length = in.readLong();
+                    }
+                    byte[] mask = new byte[4];
+                    if ((second & 0x80) != 0) {
+                        in.readFully(mask);
+                    }
+                    byte[] payload = new byte[(int) length];
+                    in.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+                    int opcode = head & 0x0F;
+                    if (opcode == 8) {
+                        int code = payload.length >= 2 ? ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF) : 1005;
+                        System.out.println("client closed with " + code);
+                        return;
+                    }
+                    if (opcode == 9) {
+                        write(0x8A, payload);
+                        continue;
+                    }
+                    if (opcode != 1 && opcode != 0) {
+                        continue;
+                    }
+                    text.append(new String(payload, StandardCharsets.UTF_8));
+                    if ((head & 0x80) == 0) {
+                        continue;
+                    }
+                    JsonObject frame = JsonParser.parseString(text.toString()).getAsJsonObject();
+                    text.setLength(0);
+                    int op = frame.get("op").getAsInt();
+                    if (op == 1) {
+                        heartbeats.incrementAndGet();
+                        sendText("{\"op\":11}");
+                    } else {
+                        control.add(frame);
+                    }
+                }
+            } catch (IOException ex) {
+                // Socket closed.
+            }
+        }
+
+        private void sendText(String text) throws IOException {
+            write(0x81, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void sendClose(int code) throws IOException {
+            write(0x88, new byte[] {(byte) (code >> 8), (byte) code});
+        }
+
+        private synchronized void write(int head, byte[] payload) throws IOException {
+            if (socket.isClosed()) {
+                return;
+            }
+            out.write(head);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length < 65536) {
+                out.write(126);
+                out.write(payload.length >> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >> shift));
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.hakune.chat.sim;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Builds Bukkit/Paper events from whatever values are at hand, matching constructor
+// parameters by type. Keeps the simulator independent of exact constructor overloads.
+final class Events {
+    private Events() {
+    }
+
+    static <E> E create(Class<E> type, Object... values) {
+        Constructor<?>[] constructors = type.getConstructors();
+        // Prefer current constructors, and among them the most specific one.
+        Arrays.sort(constructors, Comparator
+            .comparing((Constructor<?> constructor) -> constructor.isAnnotationPresent(Deprecated.class))
+            .thenComparing(Comparator.comparingInt((Constructor<?> constructor) -> constructor.getParameterCount()).reversed()));
+        ReflectiveOperationException last = null;
+        for (Constructor<?> constructor : constructors) {
+            Object[] args = fill(constructor.getParameterTypes(), values);
+            try {
+                return type.cast(constructor.newInstance(args));
+            } catch (ReflectiveOperationException | IllegalArgumentException ex) {
+                last = ex instanceof ReflectiveOperationException reflective ? reflective : new ReflectiveOperationException(ex);
+            }
+        }
+        throw new IllegalStateException("Cannot create " + type.getName(), last);
+    }
+
+    private static Object[] fill(Class<?>[] types, Object[] values) {
+        boolean[] used = new boolean[values.length];
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = wrap(types[i]);
+            for (int v = 0; v < values.length; v++) {
+                if (!used[v] && type.isInstance(values[v])) {
+                    args[i] = values[v];
+                    used[v] = true;
+                    break;
+                }
+            }
+            if (args[i] == null) {
+                args[i] = fallback(types[i]);
+            }
+        }
+        return args;
+    }
+
+    private static Object fallback(Class<?> type) {
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return constants.length == 0 ? null : constants[0];
+        }
+        return type.isPrimitive() ? Proxies.defaultValue(type) : null;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        return type;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hakune.chat.sim;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Dynamic-proxy stand-ins: an Answer handles the calls it knows by name, everything
+// else returns the default value of the return type (null, 0, false, empty collection).
+final class Proxies {
+    static final Object UNHANDLED = new Object();
+    private static final Object[] NO_ARGS = new Object[0];
+
+    interface Answer {
+        Object answer(String method, Object[] args) throws Throwable;
+    }
+
+    private Proxies() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T create(Class<T> type, Answer answer) {
+        return (T) create(new Class<?>[] {type}, answer);
+    }
+
+    static Object create(Class<?>[] types, Answer answer) {
+        String label = types[0].getSimpleName();
+        InvocationHandler handler = (self, method, args) -> {
+            Object[] actual = args == null ? NO_ARGS : args;
+            switch (method.getName()) {
+                case "equals":
+                    if (actual.length == 1) {
+                        return self == actual[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (actual.length == 0) {
+                        return System.identityHashCode(self);
+                    }
+                    break;
+                case "toString":
+                    if (actual.length == 0) {
+                        return "Sim" + label + "@" + Integer.toHexString(System.identityHashCode(self));
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = answer.answer(method.getName(), actual);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (result != UNHANDLED) {
+                return result;
+            }
+            return defaultValue(method.getReturnType());
+        };
+        return Proxy.newProxyInstance(Proxies.class.getClassLoader(), types, handler);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == List.class || type == Collection.class) {
+            return List.of();
+        }
+        if (type == Set.class) {
+            return Set.of();
+        }
+        if (type == Map.class) {
+            return Map.of();
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type.isArray()) {
+            return java.lang.reflect.Array.newInstance(type.getComponentType(), 0);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hakune.chat.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+// Collects raw samples during the run and turns them into numbers afterwards, so the
+// hot path only appends a reference and a timestamp.
+final class Recorder {
+    private static final Pattern MESSAGE_ID = Pattern.compile("(?<![\\w])s(\\d+)\\b");
+
+    private final AtomicLongArray sentAt;
+    private final LongAdder tabHeaders = new LongAdder();
+    private final LongAdder tabNames = new LongAdder();
+    private final List<Component> deliveredComponents = new ArrayList<>();
+    private final List<Long> deliveredAt = new ArrayList<>();
+    private final List<Long> tickNanos = new ArrayList<>();
+    private volatile boolean measuring;
+
+    Recorder(int maxMessages) {
+        this.sentAt = new AtomicLongArray(maxMessages);
+    }
+
+    void measuring(boolean measuring) {
+        this.measuring = measuring;
+    }
+
+    void sent(int messageId) {
+        if (messageId < sentAt.length()) {
+            sentAt.set(messageId, System.nanoTime());
+        }
+    }
+
+    void delivered(Component component) {
+        long now = System.nanoTime();
+        if (!measuring) {
+            return;
+        }
+        synchronized (deliveredComponents) {
+            deliveredComponents.add(component);
+            deliveredAt.add(now);
+        }
+    }
+
+    void tick(long nanos) {
+        if (measuring) {
+            tickNanos.add(nanos);
+        }
+    }
+
+    void tabHeaderUpdate() {
+        if (measuring) {
+            tabHeaders.increment();
+        }
+    }
+
+    void tabNameUpdate() {
+        if (measuring) {
+            tabNames.increment();
+        }
+    }
+
+    long tabHeaders() {
+        return tabHeaders.sum();
+    }
+
+    long tabNames() {
+        return tabNames.sum();
+    }
+
+    int deliveries() {
+        synchronized (deliveredComponents) {
+            return deliveredComponents.size();
+        }
+    }
+
+    long[] tickNanos() {
+        return tickNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    // Delivery latency per chat line: from the chat event to the viewer's sendMessage.
+    long[] latencyNanos() {
+        Map<Component, Integer> ids = new IdentityHashMap<>();
+        List<Long> latencies = new ArrayList<>();
+        synchronized (deliveredComponents) {
+            for (int i = 0; i < deliveredComponents.size(); i++) {
+                Component component = deliveredComponents.get(i);
+                Integer id = ids.computeIfAbsent(component, Recorder::messageId);
+                if (id < 0 || id >= sentAt.length()) {
+                    continue;
+                }
+                long sent = sentAt.get(id);
+                if (sent != 0L) {
+                    latencies.add(deliveredAt.get(i) - sent);
+                }
+            }
+        }
+        long[] result = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    static double meanMillis(long[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / (double) values.length / 1_000_000.0;
+    }
+
+    private static int messageId(Component component) {
+        Matcher matcher = MESSAGE_ID.matcher(PlainTextComponentSerializer.plainText().serialize(component));
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
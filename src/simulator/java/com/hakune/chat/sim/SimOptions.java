@@ -0,0 +1,67 @@
+package com.hakune.chat.sim;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// --key=value command line options with defaults sized for a busy evening.
+record SimOptions(
+    int players,
+    double bedrockRatio,
+    double messagesPerSecond,
+    double globalRatio,
+    int warmupSeconds,
+    int durationSeconds,
+    int joinTicks,
+    int spread,
+    double moveRatio,
+    int chatThreads,
+    boolean asyncRenderer,
+    String headMode,
+    long seed
+) {
+    static SimOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, split), arg.substring(split + 1));
+            }
+        }
+        SimOptions options = new SimOptions(
+            Integer.parseInt(values.getOrDefault("players", "500")),
+            Double.parseDouble(values.getOrDefault("bedrock", "0.3")),
+            Double.parseDouble(values.getOrDefault("rate", "20")),
+            Double.parseDouble(values.getOrDefault("global", "0.2")),
+            Integer.parseInt(values.getOrDefault("warmup", "10")),
+            Integer.parseInt(values.getOrDefault("duration", "60")),
+            Integer.parseInt(values.getOrDefault("join-ticks", "200")),
+            Integer.parseInt(values.getOrDefault("spread", "400")),
+            Double.parseDouble(values.getOrDefault("move", "0.3")),
+            Integer.parseInt(values.getOrDefault("chat-threads", "4")),
+            Boolean.parseBoolean(values.getOrDefault("async-renderer", "false")),
+            values.getOrDefault("head-mode", "armorstand"),
+            Long.parseLong(values.getOrDefault("seed", "42"))
+        );
+        if (options.players() < 1 || options.messagesPerSecond() <= 0 || options.durationSeconds() < 1) {
+            throw new IllegalArgumentException("players, rate and duration must be positive");
+        }
+        return options;
+    }
+
+    String describe() {
+        return "players=" + players
+            + " bedrock=" + Math.round(bedrockRatio * 100) + "%"
+            + " rate=" + messagesPerSecond + " msg/s"
+            + " global=" + Math.round(globalRatio * 100) + "%"
+            + " duration=" + durationSeconds + "s"
+            + " spread=" + spread
+            + " move=" + Math.round(moveRatio * 100) + "%/tick"
+            + " async-renderer=" + asyncRenderer
+            + " head-mode=" + headMode;
+    }
+}
@@ -0,0 +1,154 @@
+package com.hakune.chat.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+// A connected player: identity, position, the name components the plugin writes,
+// and every chat line it receives handed to the Recorder.
+final class SimPlayer {
+    private final SimServer server;
+    private final String name;
+    private final UUID id;
+    private final boolean bedrock;
+    private final Player proxy;
+    private final List<Entity> passengers = new ArrayList<>();
+    private volatile Location location;
+    private volatile boolean online;
+    private volatile Component displayName;
+    private volatile Component playerListName;
+    private volatile Component customName;
+
+    SimPlayer(SimServer server, String name, UUID id, boolean bedrock, Location location) {
+        this.server = server;
+        this.name = name;
+        this.id = id;
+        this.bedrock = bedrock;
+        this.location = location;
+        this.displayName = Component.text(name);
+        this.proxy = Proxies.create(Player.class, this::answer);
+    }
+
+    Player proxy() {
+        return proxy;
+    }
+
+    String name() {
+        return name;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    boolean bedrock() {
+        return bedrock;
+    }
+
+    Location location() {
+        return location.clone();
+    }
+
+    void location(Location location) {
+        this.location = location;
+    }
+
+    void online(boolean online) {
+        this.online = online;
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "getName":
+                return name;
+            case "getUniqueId":
+                return id;
+            case "isOnline":
+            case "isValid":
+            case "isConnected":
+                return online;
+            case "getServer":
+                return server.proxy();
+            case "getWorld":
+                return location.getWorld();
+            case "getLocation":
+                if (args.length == 1 && args[0] instanceof Location target) {
+                    target.setWorld(location.getWorld());
+                    target.set(location.getX(), location.getY(), location.getZ());
+                    return target;
+                }
+                return location.clone();
+            case "getEyeLocation":
+                return location.clone().add(0, 1.62, 0);
+            case "getHeight":
+                return 1.8;
+            case "getGameMode":
+                return GameMode.SURVIVAL;
+            case "teleport":
+                location = ((Location) args[0]).clone();
+                return Boolean.TRUE;
+            case "displayName":
+                if (args.length == 0) {
+                    return displayName;
+                }
+                displayName = (Component) args[0];
+                return null;
+            case "playerListName":
+                if (args.length == 0) {
+                    return playerListName;
+                }
+                playerListName = (Component) args[0];
+                server.recorder().tabNameUpdate();
+                return null;
+            case "customName":
+                if (args.length == 0) {
+                    return customName;
+                }
+                customName = (Component) args[0];
+                return null;
+            case "getScoreboard":
+                return server.scoreboards().main();
+            case "sendMessage":
+            case "sendRichMessage":
+                deliver(args);
+                return null;
+            case "sendPlayerListHeaderAndFooter":
+            case "sendPlayerListHeader":
+            case "sendPlayerListFooter":
+                server.recorder().tabHeaderUpdate();
+                return null;
+            case "addPassenger":
+                synchronized (passengers) {
+                    passengers.add((Entity) args[0]);
+                }
+                return Boolean.TRUE;
+            case "removePassenger":
+                synchronized (passengers) {
+                    return passengers.remove((Entity) args[0]);
+                }
+            case "getPassengers":
+                synchronized (passengers) {
+                    return List.copyOf(passengers);
+                }
+            case "canSee":
+                return Boolean.TRUE;
+            default:
+                return Proxies.UNHANDLED;
+        }
+    }
+
+    private void deliver(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof ComponentLike component) {
+                server.recorder().delivered(component.asComponent());
+                return;
+            }
+        }
+    }
+}
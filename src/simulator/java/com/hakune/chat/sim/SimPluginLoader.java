@@ -0,0 +1,129 @@
+package com.hakune.chat.sim;
+
+import io.papermc.paper.plugin.configuration.PluginMeta;
+import io.papermc.paper.plugin.provider.classloader.ConfiguredPluginClassLoader;
+import io.papermc.paper.plugin.provider.classloader.PluginClassLoaderGroup;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Logger;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+
+// Loads the plugin's own classes child-first, the way Paper's plugin class loader does,
+// so JavaPlugin's constructor accepts the instance. Everything else comes from the parent.
+final class SimPluginLoader extends URLClassLoader implements ConfiguredPluginClassLoader {
+    private static final String PLUGIN_PACKAGE = "com.hakune.chat.";
+    private static final String SIM_PACKAGE = "com.hakune.chat.sim.";
+
+    private final Server server;
+    private final PluginDescriptionFile description;
+    private final File dataFolder;
+    private final File file;
+    private JavaPlugin plugin;
+
+    SimPluginLoader(URL pluginClasses, ClassLoader parent, Server server, PluginDescriptionFile description, File dataFolder) {
+        super(new URL[] {pluginClasses}, parent);
+        this.server = server;
+        this.description = description;
+        this.dataFolder = dataFolder;
+        this.file = new File(pluginClasses.getPath());
+    }
+
+    JavaPlugin createPlugin() throws ReflectiveOperationException {
+        Class<?> main = loadClass(description.getMain(), true);
+        return (JavaPlugin) main.getDeclaredConstructor().newInstance();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(PLUGIN_PACKAGE) || name.startsWith(SIM_PACKAGE)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                loaded = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public PluginMeta getConfiguration() {
+        return description;
+    }
+
+    @Override
+    public Class<?> loadClass(String name, boolean resolve, boolean checkGlobal, boolean checkLibraries) throws ClassNotFoundException {
+        return loadClass(name, resolve);
+    }
+
+    // JavaPlugin.init's parameter list differs between API versions; fill it by type.
+    @Override
+    public void init(JavaPlugin javaPlugin) {
+        this.plugin = javaPlugin;
+        Method init = null;
+        for (Method method : JavaPlugin.class.getDeclaredMethods()) {
+            if (method.getName().equals("init") && (init == null || method.getParameterCount() > init.getParameterCount())) {
+                init = method;
+            }
+        }
+        if (init == null) {
+            throw new IllegalStateException("JavaPlugin#init not found");
+        }
+        Deque<File> files = new ArrayDeque<>();
+        files.add(dataFolder);
+        files.add(file);
+        Class<?>[] types = init.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == Server.class) {
+                args[i] = server;
+            } else if (type.isInstance(description)) {
+                args[i] = description;
+            } else if (type == File.class) {
+                args[i] = files.poll();
+            } else if (type == ClassLoader.class) {
+                args[i] = this;
+            } else if (type == Logger.class) {
+                args[i] = Logger.getLogger(description.getName());
+            } else {
+                args[i] = loggerOf(type);
+            }
+        }
+        try {
+            init.setAccessible(true);
+            init.invoke(javaPlugin, args);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to initialise plugin", ex);
+        }
+    }
+
+    private Object loggerOf(Class<?> type) {
+        try {
+            Method factory = type.getMethod("logger", String.class);
+            return factory.invoke(null, description.getName());
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    @Override
+    public PluginClassLoaderGroup getGroup() {
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hakune.chat.sim;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+// Reflection-based event bus with Bukkit's priority and ignoreCancelled semantics.
+// No other plugins are ever "enabled", so every soft integration stays off.
+final class SimPluginManager {
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private final PluginManager proxy;
+
+    SimPluginManager() {
+        this.proxy = Proxies.create(PluginManager.class, this::answer);
+    }
+
+    PluginManager proxy() {
+        return proxy;
+    }
+
+    void callEvent(Event event) {
+        for (Handler handler : handlers) {
+            if (!handler.type.isInstance(event)) {
+                continue;
+            }
+            if (handler.ignoreCancelled && event instanceof Cancellable cancellable && cancellable.isCancelled()) {
+                continue;
+            }
+            try {
+                handler.method.invoke(handler.listener, event);
+            } catch (InvocationTargetException ex) {
+                System.err.println("[sim] " + handler + " failed: " + ex.getCause());
+                ex.getCause().printStackTrace();
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "registerEvents":
+                register((Listener) args[0]);
+                return null;
+            case "callEvent":
+                callEvent((Event) args[0]);
+                return null;
+            case "isPluginEnabled":
+                return args[0] instanceof Plugin plugin && plugin.isEnabled();
+            case "getPlugins":
+                return new Plugin[0];
+            default:
+                return Proxies.UNHANDLED;
+        }
+    }
+
+    private void register(Listener listener) {
+        List<Handler> added = new ArrayList<>();
+        for (Method method : listener.getClass().getMethods()) {
+            EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation == null || method.getParameterCount() != 1) {
+                continue;
+            }
+            Class<?> type = method.getParameterTypes()[0];
+            if (!Event.class.isAssignableFrom(type)) {
+                continue;
+            }
+            method.setAccessible(true);
+            added.add(new Handler(listener, method, type, annotation.priority().getSlot(), annotation.ignoreCancelled()));
+        }
+        List<Handler> merged = new ArrayList<>(handlers);
+        merged.addAll(added);
+        merged.sort(Comparator.comparingInt(handler -> handler.priority));
+        handlers.clear();
+        handlers.addAll(merged);
+    }
+
+    private record Handler(Listener listener, Method method, Class<?> type, int priority, boolean ignoreCancelled) {
+        @Override
+        public String toString() {
+            return listener.getClass().getSimpleName() + "#" + method.getName();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.hakune.chat.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+// Tick-driven BukkitScheduler: sync tasks run on the simulated main thread inside tick(),
+// async tasks are handed to a small pool once their delay has passed.
+final class SimScheduler {
+    private final SimServer server;
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final ExecutorService async = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "sim-async");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BukkitScheduler proxy;
+
+    SimScheduler(SimServer server) {
+        this.server = server;
+        this.proxy = Proxies.create(BukkitScheduler.class, this::answer);
+    }
+
+    BukkitScheduler proxy() {
+        return proxy;
+    }
+
+    void tick(int currentTick) {
+        List<Task> due = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.isEmpty() && queue.peek().nextRun <= currentTick) {
+                due.add(queue.poll());
+            }
+        }
+        for (Task task : due) {
+            if (task.cancelled) {
+                continue;
+            }
+            if (task.async) {
+                async.execute(() -> task.run());
+            } else {
+                task.run();
+            }
+            if (task.period > 0 && !task.cancelled) {
+                task.nextRun = currentTick + task.period;
+                synchronized (queue) {
+                    queue.add(task);
+                }
+            }
+        }
+    }
+
+    void shutdown() {
+        synchronized (queue) {
+            queue.clear();
+        }
+        async.shutdown();
+        try {
+            async.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "runTask":
+                return schedule(args, 0L, -1L, false);
+            case "runTaskLater":
+                return schedule(args, (Long) args[2], -1L, false);
+            case "runTaskTimer":
+                return schedule(args, (Long) args[2], (Long) args[3], false);
+            case "runTaskAsynchronously":
+                return schedule(args, 0L, -1L, true);
+            case "runTaskLaterAsynchronously":
+                return schedule(args, (Long) args[2], -1L, true);
+            case "runTaskTimerAsynchronously":
+                return schedule(args, (Long) args[2], (Long) args[3], true);
+            case "scheduleSyncDelayedTask":
+                return schedule(args, args.length > 2 ? (Long) args[2] : 0L, -1L, false).getTaskId();
+            case "scheduleSyncRepeatingTask":
+                return schedule(args, (Long) args[2], (Long) args[3], false).getTaskId();
+            case "callSyncMethod": {
+                FutureTask<?> future = new FutureTask<>((Callable<?>) args[1]);
+                schedule(new Object[] {args[0], future}, 0L, -1L, false);
+                return future;
+            }
+            case "getMainThreadExecutor":
+                return (java.util.concurrent.Executor) command -> schedule(new Object[] {args[0], command}, 0L, -1L, false);
+            case "cancelTask":
+                cancel((Integer) args[0]);
+                return null;
+            case "cancelTasks":
+                synchronized (queue) {
+                    queue.forEach(task -> task.cancelled = true);
+                    queue.clear();
+                }
+                return null;
+            case "isQueued":
+            case "isCurrentlyRunning":
+                return isQueued((Integer) args[0]);
+            default:
+                return Proxies.UNHANDLED;
+        }
+    }
+
+    private BukkitTask schedule(Object[] args, long delay, long period, boolean asyncTask) {
+        Task task = new Task(ids.incrementAndGet(), (Plugin) args[0], args[1], asyncTask);
+        task.nextRun = server.currentTick() + Math.max(1L, delay);
+        task.period = period <= 0 ? -1L : period;
+        synchronized (queue) {
+            queue.add(task);
+        }
+        return task.handle;
+    }
+
+    private void cancel(int id) {
+        synchronized (queue) {
+            for (Task task : queue) {
+                if (task.id == id) {
+                    task.cancelled = true;
+                }
+            }
+        }
+    }
+
+    private boolean isQueued(int id) {
+        synchronized (queue) {
+            for (Task task : queue) {
+                if (task.id == id && !task.cancelled) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Task implements Comparable<Task> {
+        private final int id;
+        private final Plugin owner;
+        private final Object body;
+        private final boolean async;
+        private final BukkitTask handle;
+        private long nextRun;
+        private long period;
+        private volatile boolean cancelled;
+
+        private Task(int id, Plugin owner, Object body, boolean async) {
+            this.id = id;
+            this.owner = owner;
+            this.body = body;
+            this.async = async;
+            this.handle = Proxies.create(BukkitTask.class, (method, args) -> switch (method) {
+                case "getTaskId" -> this.id;
+                case "getOwner" -> this.owner;
+                case "isSync" -> !this.async;
+                case "isCancelled" -> this.cancelled;
+                case "cancel" -> {
+                    this.cancelled = true;
+                    yield null;
+                }
+                default -> Proxies.UNHANDLED;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void run() {
+            try {
+                if (body instanceof Runnable runnable) {
+                    runnable.run();
+                } else if (body instanceof Consumer<?> consumer) {
+                    ((Consumer<Object>) consumer).accept(handle);
+                }
+            } catch (Throwable ex) {
+                System.err.println("[sim] task " + id + " failed: " + ex);
+                ex.printStackTrace();
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byTick = Long.compare(nextRun, other.nextRun);
+            return byTick != 0 ? byTick : Integer.compare(id, other.id);
+        }
+    }
+}
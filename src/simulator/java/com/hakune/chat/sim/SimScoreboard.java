@@ -0,0 +1,172 @@
+package com.hakune.chat.sim;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import net.kyori.adventure.text.Component;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.ScoreboardManager;
+import org.bukkit.scoreboard.Team;
+
+// Scoreboards and teams that keep entries and prefix/suffix in memory and count
+// every mutation, which stands in for the team packets a real server would send.
+final class SimScoreboard {
+    final LongAdder teamUpdates = new LongAdder();
+    private final Board main = new Board();
+    private final ScoreboardManager manager;
+
+    SimScoreboard() {
+        this.manager = Proxies.create(ScoreboardManager.class, (method, args) -> switch (method) {
+            case "getMainScoreboard" -> main.proxy;
+            case "getNewScoreboard" -> new Board().proxy;
+            default -> Proxies.UNHANDLED;
+        });
+    }
+
+    ScoreboardManager manager() {
+        return manager;
+    }
+
+    Scoreboard main() {
+        return main.proxy;
+    }
+
+    int teamCount() {
+        synchronized (main.teams) {
+            return main.teams.size();
+        }
+    }
+
+    private final class Board {
+        private final Map<String, TeamState> teams = new LinkedHashMap<>();
+        private final Scoreboard proxy = Proxies.create(Scoreboard.class, this::answer);
+
+        private Object answer(String method, Object[] args) {
+            synchronized (teams) {
+                switch (method) {
+                    case "getTeam": {
+                        TeamState team = teams.get((String) args[0]);
+                        return team == null ? null : team.proxy;
+                    }
+                    case "registerNewTeam": {
+                        String name = (String) args[0];
+                        if (teams.containsKey(name)) {
+                            throw new IllegalArgumentException("Team name '" + name + "' is already in use");
+                        }
+                        TeamState team = new TeamState(this, name);
+                        teams.put(name, team);
+                        teamUpdates.increment();
+                        return team.proxy;
+                    }
+                    case "getTeams": {
+                        Set<Team> result = new LinkedHashSet<>();
+                        teams.values().forEach(team -> result.add(team.proxy));
+                        return result;
+                    }
+                    case "getEntryTeam":
+                    case "getPlayerTeam": {
+                        String entry = args[0] instanceof org.bukkit.OfflinePlayer player ? player.getName() : (String) args[0];
+                        for (TeamState team : teams.values()) {
+                            if (team.entries.contains(entry)) {
+                                return team.proxy;
+                            }
+                        }
+                        return null;
+                    }
+                    default:
+                        return Proxies.UNHANDLED;
+                }
+            }
+        }
+    }
+
+    private final class TeamState {
+        private final Board board;
+        private final String name;
+        private final Set<String> entries = new LinkedHashSet<>();
+        private Component prefix = Component.empty();
+        private Component suffix = Component.empty();
+        private final Team proxy;
+
+        private TeamState(Board board, String name) {
+            this.board = board;
+            this.name = name;
+            this.proxy = Proxies.create(Team.class, this::answer);
+        }
+
+        private Object answer(String method, Object[] args) {
+            synchronized (board.teams) {
+                switch (method) {
+                    case "getName":
+                        return name;
+                    case "getScoreboard":
+                        return board.proxy;
+                    case "addEntry":
+                        if (entries.add((String) args[0])) {
+                            teamUpdates.increment();
+                        }
+                        return null;
+                    case "removeEntry": {
+                        boolean removed = entries.remove((String) args[0]);
+                        if (removed) {
+                            teamUpdates.increment();
+                        }
+                        return removed;
+                    }
+                    case "hasEntry":
+                        return entries.contains((String) args[0]);
+                    case "getEntries":
+                        return Set.copyOf(entries);
+                    case "getSize":
+                        return entries.size();
+                    case "setPrefix":
+                        prefix = Component.text(args[0] == null ? "" : (String) args[0]);
+                        teamUpdates.increment();
+                        return null;
+                    case "setSuffix":
+                        suffix = Component.text(args[0] == null ? "" : (String) args[0]);
+                        teamUpdates.increment();
+                        return null;
+                    case "prefix":
+                        if (args.length == 0) {
+                            return prefix;
+                        }
+                        prefix = (Component) args[0];
+                        teamUpdates.increment();
+                        return null;
+                    case "suffix":
+                        if (args.length == 0) {
+                            return suffix;
+                        }
+                        suffix = (Component) args[0];
+                        teamUpdates.increment();
+                        return null;
+                    case "getPrefix":
+                        return net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacySection().serialize(prefix);
+                    case "getSuffix":
+                        return net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacySection().serialize(suffix);
+                    case "unregister":
+                        board.teams.remove(name);
+                        teamUpdates.increment();
+                        return null;
+                    case "color":
+                        if (args.length == 0) {
+                            return Proxies.UNHANDLED;
+                        }
+                        teamUpdates.increment();
+                        return null;
+                    case "setOption":
+                    case "setColor":
+                    case "setAllowFriendlyFire":
+                    case "setCanSeeFriendlyInvisibles":
+                        teamUpdates.increment();
+                        return null;
+                    default:
+                        return Proxies.UNHANDLED;
+                }
+            }
+        }
+    }
+}
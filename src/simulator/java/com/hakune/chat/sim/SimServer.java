@@ -0,0 +1,171 @@
+package com.hakune.chat.sim;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.ServicesManager;
+
+// The Server singleton the plugin sees. Owns the simulated main thread's tick counter,
+// the online player list and the scheduler, plugin manager, scoreboards and world.
+final class SimServer {
+    private final Logger logger = Logger.getLogger("SimServer");
+    private final Recorder recorder;
+    private final SimScheduler scheduler;
+    private final SimPluginManager pluginManager;
+    private final SimScoreboard scoreboards;
+    private final SimWorld world;
+    private final List<SimPlayer> online = new CopyOnWriteArrayList<>();
+    private final List<Player> onlineProxies = new CopyOnWriteArrayList<>();
+    private final Map<UUID, SimPlayer> byId = new ConcurrentHashMap<>();
+    private final Map<String, SimPlayer> byName = new ConcurrentHashMap<>();
+    private final ConsoleCommandSender console;
+    private final ServicesManager services;
+    private final Server proxy;
+    private volatile Thread mainThread;
+    private volatile int currentTick;
+
+    SimServer(Recorder recorder) {
+        this.recorder = recorder;
+        this.scheduler = new SimScheduler(this);
+        this.pluginManager = new SimPluginManager();
+        this.scoreboards = new SimScoreboard();
+        this.world = new SimWorld(this, "world");
+        this.console = Proxies.create(ConsoleCommandSender.class, (method, args) -> switch (method) {
+            case "getName" -> "CONSOLE";
+            case "isOp", "hasPermission" -> Boolean.TRUE;
+            case "getServer" -> proxy();
+            default -> Proxies.UNHANDLED;
+        });
+        this.services = Proxies.create(ServicesManager.class, (method, args) -> Proxies.UNHANDLED);
+        this.proxy = Proxies.create(Server.class, this::answer);
+    }
+
+    // Bukkit.setServer also prints build info that needs the real server implementation.
+    void install() throws ReflectiveOperationException {
+        Field field = Bukkit.class.getDeclaredField("server");
+        field.setAccessible(true);
+        field.set(null, proxy);
+        mainThread = Thread.currentThread();
+    }
+
+    Server proxy() {
+        return proxy;
+    }
+
+    Recorder recorder() {
+        return recorder;
+    }
+
+    SimScheduler scheduler() {
+        return scheduler;
+    }
+
+    SimPluginManager pluginManager() {
+        return pluginManager;
+    }
+
+    SimScoreboard scoreboards() {
+        return scoreboards;
+    }
+
+    SimWorld world() {
+        return world;
+    }
+
+    List<SimPlayer> online() {
+        return online;
+    }
+
+    int currentTick() {
+        return currentTick;
+    }
+
+    void tick() {
+        currentTick++;
+        scheduler.tick(currentTick);
+    }
+
+    void callEvent(Event event) {
+        pluginManager.callEvent(event);
+    }
+
+    void connect(SimPlayer player) {
+        player.online(true);
+        online.add(player);
+        onlineProxies.add(player.proxy());
+        byId.put(player.id(), player);
+        byName.put(player.name().toLowerCase(java.util.Locale.ROOT), player);
+    }
+
+    void disconnect(SimPlayer player) {
+        player.online(false);
+        online.remove(player);
+        onlineProxies.remove(player.proxy());
+        byId.remove(player.id());
+        byName.remove(player.name().toLowerCase(java.util.Locale.ROOT));
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "getName":
+                return "SimServer";
+            case "getVersion":
+            case "getBukkitVersion":
+            case "getMinecraftVersion":
+                return "1.21.11-sim";
+            case "getLogger":
+                return logger;
+            case "getOnlinePlayers":
+                return Collections.unmodifiableList(onlineProxies);
+            case "getMaxPlayers":
+                return 2000;
+            case "getPlayer":
+            case "getPlayerExact": {
+                SimPlayer player = args[0] instanceof UUID uuid
+                    ? byId.get(uuid)
+                    : byName.get(((String) args[0]).toLowerCase(java.util.Locale.ROOT));
+                return player == null ? null : player.proxy();
+            }
+            case "getWorlds":
+                return List.of(world.proxy());
+            case "getWorld":
+                return args[0] instanceof UUID || world.name().equals(args[0]) ? world.proxy() : null;
+            case "getScheduler":
+                return scheduler.proxy();
+            case "getPluginManager":
+                return pluginManager.proxy();
+            case "getScoreboardManager":
+                return scoreboards.manager();
+            case "getServicesManager":
+                return services;
+            case "getConsoleSender":
+                return console;
+            case "getCurrentTick":
+                return currentTick;
+            case "isPrimaryThread":
+                return Thread.currentThread() == mainThread;
+            case "isStopping":
+                return Boolean.FALSE;
+            case "broadcast":
+                if (args.length > 0 && args[0] instanceof Component component) {
+                    for (int i = 0; i < online.size(); i++) {
+                        recorder.delivered(component);
+                    }
+                }
+                return online.size();
+            default:
+                return Proxies.UNHANDLED;
+        }
+    }
+}
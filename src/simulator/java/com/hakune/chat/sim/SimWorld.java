@@ -0,0 +1,163 @@
+package com.hakune.chat.sim;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+// One flat world. Spawned entities are proxies of the requested type that keep
+// location, passengers, custom name and validity; spawns and removals are counted.
+final class SimWorld {
+    final LongAdder spawned = new LongAdder();
+    final LongAdder removed = new LongAdder();
+    final LongAdder teleports = new LongAdder();
+    final AtomicInteger alive = new AtomicInteger();
+    private final SimServer server;
+    private final String name;
+    private final UUID id;
+    private final World proxy;
+
+    SimWorld(SimServer server, String name) {
+        this.server = server;
+        this.name = name;
+        this.id = UUID.nameUUIDFromBytes(("world:" + name).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        this.proxy = Proxies.create(World.class, this::answer);
+    }
+
+    World proxy() {
+        return proxy;
+    }
+
+    String name() {
+        return name;
+    }
+
+    private Object answer(String method, Object[] args) throws Exception {
+        switch (method) {
+            case "getName":
+                return name;
+            case "getUID":
+                return id;
+            case "getPlayers": {
+                List<Player> players = new ArrayList<>();
+                for (SimPlayer player : server.online()) {
+                    players.add(player.proxy());
+                }
+                return players;
+            }
+            case "getMinHeight":
+                return -64;
+            case "getMaxHeight":
+                return 320;
+            case "spawn": {
+                @SuppressWarnings("unchecked")
+                Class<? extends Entity> type = (Class<? extends Entity>) args[1];
+                Entity entity = spawnEntity((Location) args[0], type);
+                for (int i = 2; i < args.length; i++) {
+                    if (args[i] instanceof java.util.function.Consumer<?> consumer) {
+                        @SuppressWarnings("unchecked")
+                        java.util.function.Consumer<Object> typed = (java.util.function.Consumer<Object>) consumer;
+                        typed.accept(entity);
+                    } else if (args[i] != null && !(args[i] instanceof Boolean) && !(args[i] instanceof Enum<?>)) {
+                        Method accept = args[i].getClass().getMethod("accept", Object.class);
+                        accept.setAccessible(true);
+                        accept.invoke(args[i], entity);
+                    }
+                }
+                return entity;
+            }
+            case "spawnEntity": {
+                EntityType type = (EntityType) args[1];
+                Class<? extends Entity> entityClass = type.getEntityClass() == null ? Entity.class : type.getEntityClass();
+                return spawnEntity((Location) args[0], entityClass);
+            }
+            default:
+                return Proxies.UNHANDLED;
+        }
+    }
+
+    private Entity spawnEntity(Location location, Class<? extends Entity> type) {
+        spawned.increment();
+        alive.incrementAndGet();
+        return new EntityState(location.clone(), type).proxy;
+    }
+
+    final class EntityState {
+        private final UUID entityId = UUID.randomUUID();
+        private final List<Entity> passengers = new ArrayList<>();
+        private final Entity proxy;
+        private volatile Location location;
+        private volatile boolean valid = true;
+        private Component customName;
+
+        private EntityState(Location location, Class<? extends Entity> type) {
+            this.location = location;
+            this.proxy = Proxies.create(type, this::answer);
+        }
+
+        private Object answer(String method, Object[] args) {
+            switch (method) {
+                case "getUniqueId":
+                    return entityId;
+                case "getWorld":
+                    return SimWorld.this.proxy;
+                case "getLocation":
+                    return location.clone();
+                case "teleport":
+                case "teleportAsync": {
+                    location = ((Location) args[0]).clone();
+                    teleports.increment();
+                    return "teleportAsync".equals(method)
+                        ? java.util.concurrent.CompletableFuture.completedFuture(Boolean.TRUE)
+                        : Boolean.TRUE;
+                }
+                case "isValid":
+                    return valid;
+                case "isDead":
+                    return !valid;
+                case "remove":
+                    if (valid) {
+                        valid = false;
+                        removed.increment();
+                        alive.decrementAndGet();
+                    }
+                    return null;
+                case "customName":
+                    if (args.length == 0) {
+                        return customName;
+                    }
+                    customName = (Component) args[0];
+                    return null;
+                case "addPassenger":
+                    synchronized (passengers) {
+                        passengers.add((Entity) args[0]);
+                    }
+                    return Boolean.TRUE;
+                case "removePassenger":
+                    synchronized (passengers) {
+                        return passengers.remove((Entity) args[0]);
+                    }
+                case "getPassengers":
+                    synchronized (passengers) {
+                        return List.copyOf(passengers);
+                    }
+                case "eject":
+                    synchronized (passengers) {
+                        boolean had = !passengers.isEmpty();
+                        passengers.clear();
+                        return had;
+                    }
+                default:
+                    return Proxies.UNHANDLED;
+            }
+        }
+    }
+}
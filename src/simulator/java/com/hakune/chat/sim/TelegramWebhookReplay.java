@@ -0,0 +1,129 @@
+package com.hakune.chat.sim;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stand-in for Telegram's side of a webhook: posts recorded updates to the plugin's
+// endpoint the way the Bot API does (one Update per POST, secret token header) and
+// prints the status codes. Files may hold a single update or an array of them; without
+// files the bundled recorded/telegram-updates.json is used.
+//
+//   --url=http://127.0.0.1:8443/telegram --secret=... [--chat-id=-100...] [--delay-ms=200] [files...]
+public final class TelegramWebhookReplay {
+    private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private TelegramWebhookReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:8443/telegram";
+        String secret = "";
+        String chatId = null;
+        long delayMillis = 200L;
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--url=")) {
+                url = arg.substring(6);
+            } else if (arg.startsWith("--secret=")) {
+                secret = arg.substring(9);
+            } else if (arg.startsWith("--chat-id=")) {
+                chatId = arg.substring(10);
+            } else if (arg.startsWith("--delay-ms=")) {
+                delayMillis = Long.parseLong(arg.substring(11));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            } else {
+                files.add(Path.of(arg));
+            }
+        }
+
+        List<JsonObject> updates = new ArrayList<>();
+        if (files.isEmpty()) {
+            try (InputStream in = TelegramWebhookReplay.class.getResourceAsStream("/recorded/telegram-updates.json")) {
+                if (in == null) {
+                    throw new IllegalStateException("recorded/telegram-updates.json is missing from the classpath");
+                }
+                collect(JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)), updates);
+            }
+        } else {
+            for (Path file : files) {
+                collect(JsonParser.parseString(Files.readString(file)), updates);
+            }
+        }
+        if (chatId != null) {
+            for (JsonObject update : updates) {
+                rewriteChat(update, chatId);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI target = URI.create(url);
+        // The endpoint must refuse a request without the right token before anything is replayed.
+        int rejected = post(client, target, secret + "-wrong", "{}");
+        System.out.println("wrong secret -> " + rejected + (rejected == 401 ? "" : " (expected 401)"));
+
+        int ok = 0;
+        for (JsonObject update : updates) {
+            int status = post(client, target, secret, update.toString());
+            if (status == 200) {
+                ok++;
+            }
+            System.out.println("update " + update.get("update_id") + " -> " + status);
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        }
+        System.out.println("Replayed " + ok + "/" + updates.size() + " updates to " + url);
+    }
+
+    private static int post(HttpClient client, URI target, String secret, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(target)
+            .timeout(Duration.ofSeconds(10))
+            .header("Content-Type", "application/json")
+            .header(SECRET_HEADER, secret)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void collect(JsonElement element, List<JsonObject> out) {
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (JsonElement item : array) {
+                out.add(item.getAsJsonObject());
+            }
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            // A saved getUpdates response works too.
+            if (object.has("result") && object.get("result").isJsonArray()) {
+                collect(object.get("result"), out);
+            } else {
+                out.add(object);
+            }
+        }
+    }
+
+    private static void rewriteChat(JsonObject update, String chatId) {
+        for (String key : update.keySet()) {
+            JsonElement value = update.get(key);
+            if (value.isJsonObject() && value.getAsJsonObject().has("chat")) {
+                value.getAsJsonObject().getAsJsonObject("chat").addProperty("id", Long.parseLong(chatId));
+            }
+        }
+    }
+}
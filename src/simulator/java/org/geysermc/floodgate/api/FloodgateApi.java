@@ -0,0 +1,17 @@
+package org.geysermc.floodgate.api;
+
+import java.util.UUID;
+
+// Stand-in for the Floodgate API so BedrockDetector sees Bedrock players in the simulator.
+// Simulated Bedrock players get Floodgate-style ids (most significant bits zeroed).
+public final class FloodgateApi {
+    private static final FloodgateApi INSTANCE = new FloodgateApi();
+
+    public static FloodgateApi getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isFloodgatePlayer(UUID uuid) {
+        return uuid != null && uuid.getMostSignificantBits() == 0L;
+    }
+}